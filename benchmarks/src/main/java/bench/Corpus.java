@@ -0,0 +1,92 @@
+package bench;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Synthetic model files for benchmarks, scaled up from the test resources.
+ */
+public class Corpus {
+
+    /**
+     * Line ending used in generated text.
+     */
+    public enum LineEnding {
+        LF("\n"),
+        CRLF("\r\n"),
+        CR("\r");
+
+        private final String separator;
+
+        LineEnding(String separator) {
+            this.separator = separator;
+        }
+
+        public String getSeparator() {
+            return separator;
+        }
+    }
+
+    /**
+     * Parses size such as {@code 1KB}, {@code 64MB} or {@code 1GB}.
+     *
+     * @return Size in bytes.
+     */
+    public static long parseSize(String size) {
+        String s = size.trim().toUpperCase();
+        long unit = 1;
+        if (s.endsWith("KB")) {
+            unit = 1L << 10;
+        } else if (s.endsWith("MB")) {
+            unit = 1L << 20;
+        } else if (s.endsWith("GB")) {
+            unit = 1L << 30;
+        }
+        if (unit != 1) {
+            s = s.substring(0, s.length() - 2);
+        }
+        return Long.parseLong(s) * unit;
+    }
+
+    /**
+     * Generates a model file of roughly given size (never more than {@link Integer#MAX_VALUE} - 8 bytes).
+     *
+     * @param kind       {@code board} (board rows like model_board.txt), {@code player} (player blocks like
+     *                   model_player.txt) or {@code punctuation} (only single character tokens).
+     * @param size       Requested size in bytes.
+     * @param lineEnding Line ending to use.
+     * @return UTF-8 encoded text.
+     */
+    public static byte[] generate(String kind, long size, LineEnding lineEnding) {
+        long limit = Math.min(size, Integer.MAX_VALUE - 8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(limit + 256, Integer.MAX_VALUE - 8));
+        String nl = lineEnding.getSeparator();
+        int id = 1;
+        switch (kind) {
+            case "board" -> {
+                write(out, "board {" + nl);
+                while (out.size() < limit) {
+                    write(out, "( x   ) (" + id++ + ") (   x ) (" + id++ + "  ) (x) // row" + nl);
+                }
+                write(out, "}" + nl);
+            }
+            case "player" -> {
+                while (out.size() < limit) {
+                    write(out, "player{" + nl + "income = " + (14000 + id) + "," + nl
+                            + "     name=\"Petr" + id++ + "\",isGOOD=   true}" + nl);
+                }
+            }
+            case "punctuation" -> {
+                while (out.size() < limit) {
+                    write(out, "{=,}{=,}{=,}{=,}" + nl);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown corpus kind '" + kind + "'.");
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        out.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.ByteLexer;
+import parser.Lex;
+import parser.Lexer;
+import parser.ParallelLexer;
+import parser.Token;
+import parser.TokenBuffer;
+
+import java.io.CharArrayReader;
+import java.io.PushbackReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexes whole synthetic model files with every lexer.
+ * One operation is one file. Secondary results {@code tokens} and {@code bytes} are tokens/s and bytes/s,
+ * allocations per token are {@code gc.alloc.rate.norm} (with {@code -prof gc}) divided by tokens per file.
+ * <p>
+ * {@code corpus=punctuation} consists only of single character tokens, so it measures the dispatch of the start
+ * state (stateSHelper). Sizes over a few hundred MB need a larger heap, for example
+ * {@code -p size=1GB -jvmArgs -Xmx8g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexBenchmark {
+
+    @Param({"board", "player", "punctuation"})
+    public String corpus;
+
+    @Param({"1KB", "1MB", "64MB"})
+    public String size;
+
+    @Param({"LF", "CRLF", "CR"})
+    public Corpus.LineEnding lineEnding;
+
+    private byte[] bytes;
+    private char[] chars;
+    private TokenBuffer buffer;
+
+    /**
+     * Throughput counters, reported as rates per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long tokens;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bytes = Corpus.generate(corpus, Corpus.parseSize(size), lineEnding);
+        chars = new String(bytes, StandardCharsets.UTF_8).toCharArray();
+        buffer = new TokenBuffer();
+    }
+
+    @Benchmark
+    public int staticLex(Counters counters) throws Exception {
+        PushbackReader br = new PushbackReader(new CharArrayReader(chars));
+        int n = 0;
+        while (Lex.readToken(br).getType() != Token.Type.T_EOF) {
+            n++;
+        }
+        return count(counters, n + 1);
+    }
+
+    @Benchmark
+    public int lexer(Counters counters) throws Exception {
+        Lexer lexer = new Lexer(new PushbackReader(new CharArrayReader(chars)));
+        int n = 0;
+        while (lexer.readToken().getType() != Token.Type.T_EOF) {
+            n++;
+        }
+        return count(counters, n + 1);
+    }
+
+    @Benchmark
+    public int byteLexer(Counters counters) throws Exception {
+        ByteLexer lexer = new ByteLexer(bytes);
+        int n = 0;
+        while (lexer.readToken().getType() != Token.Type.T_EOF) {
+            n++;
+        }
+        return count(counters, n + 1);
+    }
+
+    @Benchmark
+    public int byteLexerTokenBuffer(Counters counters) throws Exception {
+        buffer.clear();
+        new ByteLexer(bytes).tokenize(buffer);
+        return count(counters, buffer.size());
+    }
+
+    @Benchmark
+    public int parallelLexer(Counters counters) throws Exception {
+        buffer.clear();
+        new ParallelLexer().tokenize(ByteBuffer.wrap(bytes), buffer);
+        return count(counters, buffer.size());
+    }
+
+    private int count(Counters counters, int tokens) {
+        counters.tokens += tokens;
+        counters.bytes += bytes.length;
+        return tokens;
+    }
+}
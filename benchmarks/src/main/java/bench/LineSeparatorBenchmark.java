@@ -0,0 +1,120 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.LineIndex;
+import util.LineSeparator;
+
+import java.io.CharArrayReader;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans whole synthetic model files for line separators with each {@link LineSeparator#isNewLine} overload and with
+ * {@link LineIndex}, which scans 8 bytes at a time.
+ * One operation is one file, secondary result {@code bytes} is bytes/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineSeparatorBenchmark {
+
+    @Param({"1KB", "1MB", "64MB"})
+    public String size;
+
+    @Param({"LF", "CRLF", "CR"})
+    public Corpus.LineEnding lineEnding;
+
+    @Param({"false", "true"})
+    public boolean osDependent;
+
+    private byte[] bytes;
+    private char[] chars;
+    private String[] separators;
+
+    /**
+     * Throughput counter, reported as rate per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bytes = Corpus.generate("board", Corpus.parseSize(size), lineEnding);
+        chars = new String(bytes, StandardCharsets.UTF_8).toCharArray();
+        separators = new String[]{"\n", "\r\n", "\r", "x", " ", "\n\r"};
+    }
+
+    @Benchmark
+    public int fromString(Counters counters) {
+        int n = 0;
+        for (int i = 0; i < chars.length; i += separators.length) {
+            for (String separator : separators) {
+                if (LineSeparator.isNewLine(separator, osDependent)) {
+                    n++;
+                }
+            }
+        }
+        // one check of a separator per character, same work per byte as the other overloads
+        counters.bytes += chars.length;
+        return n;
+    }
+
+    @Benchmark
+    public int fromReader(Counters counters) throws Exception {
+        PushbackReader br = new PushbackReader(new CharArrayReader(chars));
+        int n = 0;
+        while (true) {
+            if (LineSeparator.isNewLine(br, osDependent)) {
+                n++;
+            } else if (br.read() == -1) {
+                break;
+            }
+        }
+        counters.bytes += chars.length;
+        return n;
+    }
+
+    @Benchmark
+    public int fromFirstCharacter(Counters counters) throws Exception {
+        PushbackReader br = new PushbackReader(new CharArrayReader(chars));
+        int n = 0;
+        int c;
+        while ((c = br.read()) != -1) {
+            if (LineSeparator.isNewLine(c, br, osDependent)) {
+                n++;
+            }
+        }
+        counters.bytes += chars.length;
+        return n;
+    }
+
+    @Benchmark
+    public int lineIndex(Counters counters) {
+        counters.bytes += bytes.length;
+        return LineIndex.of(bytes).getLineCount();
+    }
+}
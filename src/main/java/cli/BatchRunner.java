@@ -0,0 +1,311 @@
+package cli;
+
+import model.Player;
+import parser.LexMetrics;
+import sim.SimulationConfig;
+import sim.SimulationResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs simulations of many model files in batch.
+ * <p>
+ * Every model file is one job: it is lexed and parsed, then its simulation is run. A model file consists of one
+ * {@code board} block, one or more {@code player} blocks and an optional {@code simulation} block with parameters
+ * of the run (see {@link SimulationConfig}). Jobs run on virtual threads when the JVM has them (Java 21+), otherwise
+ * on a fixed pool, and at most {@code concurrency} jobs run at the same time either way.
+ * <p>
+ * A line with the result of every job is written as soon as the job finishes, tab separated:
+ * {@code file, status, tokens, playouts, milliseconds, win rates or error message}.
+ * <p>
+ * Usage: {@code BatchRunner <directory|manifest> [--glob *.txt] [--concurrency n] [--out file]}.
+ * A manifest is a text file with a path of a model file on every line, relative to the manifest. Blank lines and
+ * lines starting with {@code //} are ignored. The summary is printed to standard error.
+ */
+public class BatchRunner {
+    private final int concurrency;
+    private final Writer out;
+
+    /**
+     * Totals of a finished batch.
+     */
+    public static final class Summary {
+        private final int files;
+        private final int failed;
+        private final long tokens;
+        private final long playouts;
+        private final long nanos;
+        private final long[] latencies;
+
+        Summary(int files, int failed, long tokens, long playouts, long nanos, long[] latencies) {
+            this.files = files;
+            this.failed = failed;
+            this.tokens = tokens;
+            this.playouts = playouts;
+            this.nanos = nanos;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getTokens() {
+            return tokens;
+        }
+
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        /**
+         * @return Wall clock time of the whole batch.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @param p Percentile, between 0 and 100.
+         * @return Latency of a job (from its start to its result) in nanoseconds, nearest rank; 0 without jobs.
+         */
+        public long getLatency(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)];
+        }
+
+        private double perSecond(long count) {
+            return nanos == 0 ? 0 : count * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "files: %d (%d failed), %.1f files/s%n"
+                            + "tokens: %d, %.1f tokens/s%n"
+                            + "playouts: %d, %.1f playouts/s%n"
+                            + "job latency: p50 %.3f ms, p99 %.3f ms%n",
+                    files, failed, perSecond(files), tokens, perSecond(tokens), playouts, perSecond(playouts),
+                    getLatency(50) / 1e6, getLatency(99) / 1e6);
+        }
+    }
+
+    /**
+     * @param concurrency Maximal number of jobs running at the same time, must be positive.
+     * @param out         Where to write results of jobs.
+     */
+    public BatchRunner(int concurrency, Writer out) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive, got " + concurrency + ".");
+        }
+        this.concurrency = concurrency;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        String glob = "*.txt";
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        Path outFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--glob" -> glob = args[++i];
+                    case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                    case "--out" -> outFile = Path.of(args[++i]);
+                    default -> {
+                        if (input != null) {
+                            throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'.");
+                        }
+                        input = Path.of(args[i]);
+                    }
+                }
+            }
+            if (input == null) {
+                throw new IllegalArgumentException("Missing directory or manifest.");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchRunner <directory|manifest> [--glob *.txt] [--concurrency n] [--out file]");
+            System.exit(2);
+            return;
+        }
+        List<Path> files = Files.isDirectory(input) ? listDirectory(input, glob) : readManifest(input);
+        try (Writer out = outFile != null ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            Summary summary = new BatchRunner(concurrency, out).run(files);
+            System.err.print(summary);
+            if (summary.getFailed() > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * @return Regular files in the directory (not recursively) whose name matches the glob, sorted.
+     */
+    public static List<Path> listDirectory(Path dir, String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p)) {
+                    files.add(p);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * @return Files listed in the manifest, resolved against its directory.
+     */
+    public static List<Path> readManifest(Path manifest) throws IOException {
+        Path dir = manifest.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("//")) {
+                files.add(dir.resolve(line));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Runs a job for every file and waits for all of them. Failed jobs are reported by their result line.
+     *
+     * @param files Model files.
+     * @return Totals of the batch.
+     */
+    public Summary run(List<Path> files) throws Exception {
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicLong tokens = new AtomicLong();
+        AtomicLong playouts = new AtomicLong();
+        long[] latencies = new long[files.size()];
+        boolean[] failed = new boolean[files.size()];
+        ExecutorService executor = newExecutor(concurrency);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                int job = i;
+                // blocks the submitting thread, so no more than concurrency jobs exist at once
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        long jobStart = System.nanoTime();
+                        // counted as failed unless the job says otherwise
+                        failed[job] = true;
+                        try {
+                            failed[job] = !runJob(files.get(job), tokens, playouts, jobStart);
+                        } finally {
+                            latencies[job] = System.nanoTime() - jobStart;
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, jobs are never abandoned
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        out.flush();
+        int failedCount = 0;
+        for (boolean f : failed) {
+            if (f) {
+                failedCount++;
+            }
+        }
+        return new Summary(files.size(), failedCount, tokens.get(), playouts.get(), nanos, latencies);
+    }
+
+    /**
+     * Creates executor that starts a virtual thread for every job if the JVM supports it, otherwise a fixed pool.
+     * The project targets Java 17, so virtual threads are looked up reflectively.
+     */
+    static ExecutorService newExecutor(int concurrency) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    /**
+     * Loads the model, runs its simulation and writes the result line.
+     *
+     * @return False if the job failed or its result line could not be written.
+     */
+    private boolean runJob(Path file, AtomicLong tokens, AtomicLong playouts, long start) {
+        LexMetrics metrics = new LexMetrics();
+        try {
+            GameModel model = GameModel.load(file, metrics);
+            List<Player> players = model.getPlayers();
+            SimulationConfig config = model.getConfig();
+            tokens.addAndGet(metrics.getTokens());
+            SimulationResult result = model.newSimulation().run(config.getPlayouts(), config.getSeed());
+            playouts.addAndGet(result.getPlayouts());
+            StringBuilder rates = new StringBuilder();
+            for (int i = 0; i < players.size(); i++) {
+                rates.append(i == 0 ? "" : " ").append(players.get(i).getName()).append('=')
+                        .append(String.format(Locale.ROOT, "%.4f", result.getWinRate(i)));
+            }
+            return write(file, "ok", metrics.getTokens(), result.getPlayouts(), start, rates.toString());
+        } catch (Exception e) {
+            write(file, "failed", metrics.getTokens(), 0, start, String.valueOf(e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Writes the result line of a job. A write error is reported to standard error, other jobs keep running.
+     *
+     * @return False if the line could not be written.
+     */
+    private boolean write(Path file, String status, long tokens, long playouts, long start, String detail) {
+        String line = file + "\t" + status + "\t" + tokens + "\t" + playouts + "\t"
+                + (System.nanoTime() - start) / 1_000_000 + "\t" + detail.replace('\t', ' ').replace('\n', ' ')
+                + System.lineSeparator();
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                System.err.println("Cannot write result of '" + file + "': " + e.getMessage());
+                return false;
+            }
+        }
+    }
+}
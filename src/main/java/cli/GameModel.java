@@ -0,0 +1,85 @@
+package cli;
+
+import model.Board;
+import model.Player;
+import parser.ByteLexer;
+import parser.LexMetrics;
+import parser.ModelParser;
+import sim.Simulation;
+import sim.SimulationConfig;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything a model file defines for a simulation: one {@code board} block, one or more {@code player} blocks and
+ * an optional {@code simulation} block (other blocks are errors).
+ */
+final class GameModel {
+    private final Board board;
+    private final List<Player> players;
+    private final SimulationConfig config;
+
+    private GameModel(Board board, List<Player> players, SimulationConfig config) {
+        this.board = board;
+        this.players = List.copyOf(players);
+        this.config = config;
+    }
+
+    /**
+     * Lexes and parses model file.
+     *
+     * @param file    Model file.
+     * @param metrics Metrics to count tokens into, may be null.
+     * @return Parsed model.
+     */
+    static GameModel load(Path file, LexMetrics metrics) throws Exception {
+        ByteLexer lexer = ByteLexer.map(file);
+        if (metrics != null) {
+            lexer.setMetrics(metrics, file.toString());
+        }
+        ModelParser parser = new ModelParser(lexer);
+        Board board = null;
+        List<Player> players = new ArrayList<>();
+        SimulationConfig config = SimulationConfig.DEFAULT;
+        while (!parser.atEnd()) {
+            String name = parser.peekBlockName();
+            if ("board".equals(name)) {
+                if (board != null) {
+                    throw new Exception("Model has more than one board.");
+                }
+                board = parser.parseBoard();
+            } else if ("player".equals(name)) {
+                players.add(parser.parsePlayer());
+            } else if ("simulation".equals(name)) {
+                config = parser.parseSimulation();
+            } else {
+                throw new Exception(name == null ? "Expected name of block." : "Unknown block '" + name + "'.");
+            }
+        }
+        if (board == null) {
+            throw new Exception("Model has no board.");
+        }
+        return new GameModel(board, players, config);
+    }
+
+    /**
+     * @return Simulation of the model with rounds of its config.
+     */
+    Simulation newSimulation() {
+        return new Simulation(board, players, config.getRounds());
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    List<Player> getPlayers() {
+        return players;
+    }
+
+    SimulationConfig getConfig() {
+        return config;
+    }
+}
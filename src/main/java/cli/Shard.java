@@ -0,0 +1,57 @@
+package cli;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Part of a sweep run by one worker: a range of seeds of one model file. Every seed is a run of the number of
+ * playouts of the model's {@code simulation} block. Shards are immutable.
+ */
+public final class Shard {
+    private final Path file;
+    private final long firstSeed;
+    private final int seedCount;
+
+    /**
+     * @param file      Model file, absolute so workers in other directories find it.
+     * @param firstSeed First seed of the range.
+     * @param seedCount Number of seeds, must be positive.
+     */
+    public Shard(Path file, long firstSeed, int seedCount) {
+        if (seedCount < 1) {
+            throw new IllegalArgumentException("Number of seeds must be positive, got " + seedCount + ".");
+        }
+        this.file = file.toAbsolutePath();
+        this.firstSeed = firstSeed;
+        this.seedCount = seedCount;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getFirstSeed() {
+        return firstSeed;
+    }
+
+    public int getSeedCount() {
+        return seedCount;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(file.toString());
+        out.writeLong(firstSeed);
+        out.writeInt(seedCount);
+    }
+
+    static Shard readFrom(DataInput in) throws IOException {
+        return new Shard(Path.of(in.readUTF()), in.readLong(), in.readInt());
+    }
+
+    @Override
+    public String toString() {
+        return file + " [" + firstSeed + ", " + (firstSeed + seedCount) + ")";
+    }
+}
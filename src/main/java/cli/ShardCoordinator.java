@@ -0,0 +1,244 @@
+package cli;
+
+import sim.SimulationResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a sweep (model files times seeds) in separate worker processes, so a sweep is not limited by one JVM heap.
+ * <p>
+ * The sweep is split into {@link Shard}s by model file and seed range. Every worker is a {@link ShardWorker} process
+ * started with the class path of this JVM, it takes the next shard as soon as it is done with the previous one and
+ * sends back a binary partial result. Partial results of each file are merged here.
+ * <p>
+ * Workers share the machine: the common pool of every worker runs on cores / workers threads (at least one) and its
+ * heap is limited to an equal share of half of the physical memory (at least {@link #MIN_WORKER_HEAP} bytes). With
+ * JVM defaults the workers together would start cores² threads and each could take a quarter of the memory.
+ * <p>
+ * Usage: {@code ShardCoordinator <directory|manifest> [--glob *.txt] [--workers n] [--first-seed n] [--seeds n]
+ * [--seeds-per-shard n]}. The merged result of every file is printed to standard output.
+ */
+public class ShardCoordinator {
+    static final long MIN_WORKER_HEAP = 256L << 20;
+
+    private final int workers;
+    private final List<String> command;
+
+    /**
+     * @param workers Number of worker processes, must be positive.
+     */
+    public ShardCoordinator(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive, got " + workers + ".");
+        }
+        this.workers = workers;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        long memory = os instanceof com.sun.management.OperatingSystemMXBean bean ? bean.getTotalMemorySize() : 0;
+        this.command = command(workers, Runtime.getRuntime().availableProcessors(), memory);
+    }
+
+    /**
+     * @param workers Number of worker processes.
+     * @param cores   Number of cores of the machine.
+     * @param memory  Physical memory of the machine in bytes, 0 if unknown to keep the default heap.
+     * @return Command starting a worker process.
+     */
+    static List<String> command(int workers, int cores, long memory) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + Math.max(1, cores / workers));
+        if (memory > 0) {
+            command.add("-Xmx" + Math.max(MIN_WORKER_HEAP, memory / 2 / workers) / (1 << 20) + "m");
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName()));
+        return List.copyOf(command);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        String glob = "*.txt";
+        int workers = Runtime.getRuntime().availableProcessors();
+        long firstSeed = 1;
+        int seeds = 16;
+        int seedsPerShard = 4;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--glob" -> glob = args[++i];
+                    case "--workers" -> workers = Integer.parseInt(args[++i]);
+                    case "--first-seed" -> firstSeed = Long.parseLong(args[++i]);
+                    case "--seeds" -> seeds = Integer.parseInt(args[++i]);
+                    case "--seeds-per-shard" -> seedsPerShard = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (input != null) {
+                            throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'.");
+                        }
+                        input = Path.of(args[i]);
+                    }
+                }
+            }
+            if (input == null) {
+                throw new IllegalArgumentException("Missing directory or manifest.");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ShardCoordinator <directory|manifest> [--glob *.txt] [--workers n]"
+                    + " [--first-seed n] [--seeds n] [--seeds-per-shard n]");
+            System.exit(2);
+            return;
+        }
+        List<Path> files = Files.isDirectory(input) ? BatchRunner.listDirectory(input, glob)
+                : BatchRunner.readManifest(input);
+        long start = System.nanoTime();
+        Map<Path, SimulationResult> results = new ShardCoordinator(workers)
+                .run(plan(files, firstSeed, seeds, seedsPerShard));
+        long nanos = System.nanoTime() - start;
+        long playouts = 0;
+        for (Map.Entry<Path, SimulationResult> e : results.entrySet()) {
+            SimulationResult r = e.getValue();
+            StringBuilder line = new StringBuilder(e.getKey() + "\t" + r.getPlayouts());
+            for (int i = 0; i < r.getPlayerCount(); i++) {
+                line.append(i == 0 ? "\t" : " ").append(String.format(Locale.ROOT, "%.4f", r.getWinRate(i)));
+            }
+            System.out.println(line);
+            playouts += r.getPlayouts();
+        }
+        System.err.printf(Locale.ROOT, "playouts: %d, %.1f playouts/s%n", playouts, playouts * 1e9 / nanos);
+    }
+
+    /**
+     * Splits a sweep into shards, file by file.
+     *
+     * @param files         Model files.
+     * @param firstSeed     First seed of every file.
+     * @param seeds         Number of seeds of every file.
+     * @param seedsPerShard Maximal number of seeds of a shard.
+     * @return Shards covering every seed of every file once.
+     */
+    public static List<Shard> plan(List<Path> files, long firstSeed, int seeds, int seedsPerShard) {
+        if (seedsPerShard < 1) {
+            throw new IllegalArgumentException("Seeds per shard must be positive, got " + seedsPerShard + ".");
+        }
+        List<Shard> shards = new ArrayList<>();
+        for (Path file : files) {
+            for (int i = 0; i < seeds; i += seedsPerShard) {
+                shards.add(new Shard(file, firstSeed + i, Math.min(seedsPerShard, seeds - i)));
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Runs shards in worker processes and merges their results. Results do not depend on the number of workers.
+     * The first failed shard stops the whole sweep: no more shards are started and all workers are killed.
+     *
+     * @param shards Shards to run.
+     * @return Merged result of every file, in order of the first shard of the file.
+     */
+    public Map<Path, SimulationResult> run(List<Shard> shards) throws Exception {
+        Map<Path, SimulationResult> results = new LinkedHashMap<>();
+        for (Shard shard : shards) {
+            results.put(shard.getFile(), null);
+        }
+        Queue<Shard> queue = new ConcurrentLinkedQueue<>(shards);
+        List<Process> started = new CopyOnWriteArrayList<>();
+        int processes = Math.min(workers, shards.size());
+        // one thread talks to one worker process
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, processes));
+        CompletionService<Void> finished = new ExecutorCompletionService<>(pool);
+        try {
+            for (int i = 0; i < processes; i++) {
+                finished.submit(() -> {
+                    drive(queue, results, started);
+                    return null;
+                });
+            }
+            // in order of completion, so a failure is seen as soon as it happens
+            for (int i = 0; i < processes; i++) {
+                try {
+                    finished.take().get();
+                } catch (ExecutionException e) {
+                    // results of the other shards are useless now, do not wait for them
+                    queue.clear();
+                    for (Process process : started) {
+                        process.destroy();
+                    }
+                    throw new Exception(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Starts a worker process and feeds it shards from the queue until it is empty.
+     */
+    private void drive(Queue<Shard> queue, Map<Path, SimulationResult> results, List<Process> started)
+            throws Exception {
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        started.add(process);
+        try {
+            DataOutputStream requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            DataInputStream responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            Shard shard;
+            while ((shard = queue.poll()) != null) {
+                requests.writeByte(ShardWorker.SHARD);
+                shard.writeTo(requests);
+                requests.flush();
+                byte status;
+                try {
+                    status = responses.readByte();
+                } catch (IOException e) {
+                    throw new Exception("Worker of shard " + shard + " ended unexpectedly.", e);
+                }
+                if (status != ShardWorker.OK) {
+                    throw new Exception("Shard " + shard + " failed: " + responses.readUTF());
+                }
+                SimulationResult partial = SimulationResult.readFrom(responses);
+                synchronized (results) {
+                    SimulationResult result = results.get(shard.getFile());
+                    if (result == null) {
+                        results.put(shard.getFile(), partial);
+                    } else {
+                        result.merge(partial);
+                    }
+                }
+            }
+            requests.writeByte(ShardWorker.SHUTDOWN);
+            requests.flush();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                throw new Exception("Worker did not stop.");
+            }
+        } catch (Exception e) {
+            // other workers do not take any more shards
+            queue.clear();
+            throw e;
+        } finally {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cli;
+
+import sim.Simulation;
+import sim.SimulationResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Worker of {@link ShardCoordinator}, runs shards one after another and answers with binary partial results.
+ * The last {@link #MAX_MODELS} models used are kept, so a model file is lexed and parsed only once per worker
+ * however many of its shards the worker gets ({@link ShardCoordinator#plan} lists shards file by file), while the
+ * worker never holds more than a few models of a sweep.
+ * <p>
+ * The protocol does not depend on the transport: a local worker process serves its standard input and output,
+ * a worker on another node can serve a socket in the same way. A request is a byte {@link #SHARD} followed by the
+ * shard, or {@link #SHUTDOWN} (end of input also ends the worker). A response is {@link #OK} followed by
+ * {@link SimulationResult#writeTo(java.io.DataOutput)}, or {@link #FAILED} followed by a UTF message.
+ */
+public class ShardWorker {
+    static final byte SHUTDOWN = 0;
+    static final byte SHARD = 1;
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+    /**
+     * Number of models kept, a few in case shards of neighboring files interleave across workers.
+     */
+    static final int MAX_MODELS = 4;
+
+    /**
+     * Models in access order, the eldest is evicted first.
+     */
+    private final LinkedHashMap<Path, GameModel> models = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Serves standard input and output.
+     */
+    public static void main(String[] args) throws IOException {
+        // standard output carries the protocol, anything printed goes to standard error instead
+        PrintStream protocol = System.out;
+        System.setOut(System.err);
+        new ShardWorker().serve(System.in, protocol);
+    }
+
+    /**
+     * Answers requests until shutdown or end of input.
+     *
+     * @param in  Requests.
+     * @param out Responses, flushed after every response.
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(in));
+        DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(out));
+        while (true) {
+            byte request;
+            try {
+                request = requests.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            if (request == SHUTDOWN) {
+                return;
+            }
+            if (request != SHARD) {
+                throw new IOException("Unknown request " + request + ".");
+            }
+            Shard shard = Shard.readFrom(requests);
+            SimulationResult result;
+            try {
+                result = run(shard);
+            } catch (Exception e) {
+                responses.writeByte(FAILED);
+                responses.writeUTF(String.valueOf(e.getMessage()));
+                responses.flush();
+                continue;
+            }
+            responses.writeByte(OK);
+            result.writeTo(responses);
+            responses.flush();
+        }
+    }
+
+    /**
+     * Runs every seed of the shard.
+     *
+     * @return Merged result of all seeds.
+     */
+    SimulationResult run(Shard shard) throws Exception {
+        GameModel model = models.get(shard.getFile());
+        if (model == null) {
+            model = GameModel.load(shard.getFile(), null);
+            models.put(shard.getFile(), model);
+            Iterator<GameModel> eldest = models.values().iterator();
+            while (models.size() > MAX_MODELS) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        Simulation simulation = model.newSimulation();
+        SimulationResult result = null;
+        for (int i = 0; i < shard.getSeedCount(); i++) {
+            SimulationResult seed = simulation.run(model.getConfig().getPlayouts(), shard.getFirstSeed() + i);
+            if (result == null) {
+                result = seed;
+            } else {
+                result.merge(seed);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,247 @@
+package model;
+
+import util.OffHeapIntArray;
+
+/**
+ * Game board, a grid of cells stored row by row in flat arrays. A cell is either a field with an id or empty.
+ * Rows may have different lengths. Tables with an entry per cell or per id are {@link OffHeapIntArray}s, so boards
+ * with tens of millions of fields do not add to garbage collection; only the offsets of rows are on the heap.
+ * <p>
+ * Cells are addressed by index (0 .. {@link #getCellCount()} - 1). Every lookup (cell of id, neighbor in a
+ * direction, row and column of cell) is a single array access and allocates nothing. Only when field ids are
+ * sparse (the highest id is much larger than the number of cells) a cell of id is found in a small hash table
+ * instead, so any id up to {@link Integer#MAX_VALUE} is fine.
+ * Boards are immutable.
+ */
+public final class Board {
+    /**
+     * Id of an empty cell and result of lookups that found nothing.
+     */
+    public static final int EMPTY = -1;
+
+    // directions of neighbors
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+    public static final int DIRECTIONS = 4;
+
+    /**
+     * Field id of every cell, {@link #EMPTY} for empty cells.
+     */
+    private final OffHeapIntArray ids;
+    /**
+     * Index of the first cell of every row, the last entry is the number of cells.
+     */
+    private final int[] rowOffsets;
+    private final OffHeapIntArray rowOfCell;
+    private final OffHeapIntArray columnOfCell;
+    /**
+     * Cell of every id plus one, 0 for ids that are not on the board (so zeroed memory means no fields). Null if
+     * ids are sparse.
+     */
+    private final OffHeapIntArray cellOfId;
+    /**
+     * Open addressing hash table of sparse ids, {@link #EMPTY} is an empty slot; the cell of the id is at the same
+     * index of {@link #cellsOfIds}. Length is a power of two. Null if ids are dense.
+     */
+    private final OffHeapIntArray idSlots;
+    private final OffHeapIntArray cellsOfIds;
+    private final int maxId;
+    /**
+     * Neighbor of cell in direction at {@code cell * DIRECTIONS + direction}, {@link #EMPTY} outside the grid.
+     */
+    private final OffHeapIntArray neighbors;
+    private final int fieldCount;
+
+    /**
+     * @param ids        Field id of every cell row by row, {@link #EMPTY} for empty cells. Ids must be unique.
+     *                   The ids are copied off the heap, the array is not referenced afterwards.
+     * @param rowOffsets Index of the first cell of every row, followed by the number of cells.
+     */
+    public Board(int[] ids, int[] rowOffsets) {
+        if (rowOffsets.length == 0 || rowOffsets[0] != 0 || rowOffsets[rowOffsets.length - 1] != ids.length) {
+            throw new IllegalArgumentException("Row offsets do not match " + ids.length + " cells.");
+        }
+        this.rowOffsets = rowOffsets.clone();
+        int cells = ids.length;
+        int rows = rowOffsets.length - 1;
+        for (int row = 0; row < rows; row++) {
+            if (rowOffsets[row] > rowOffsets[row + 1]) {
+                throw new IllegalArgumentException("Row offsets must not decrease.");
+            }
+        }
+
+        int maxId = EMPTY;
+        int count = 0;
+        for (int id : ids) {
+            if (id < EMPTY) {
+                throw new IllegalArgumentException("Field id must not be negative, got " + id + ".");
+            }
+            maxId = Math.max(maxId, id);
+            if (id != EMPTY) {
+                count++;
+            }
+        }
+        fieldCount = count;
+        this.maxId = maxId;
+        // a dense table is at most about twice as large as the board
+        if ((long) maxId + 1 <= 2L * cells + 1024) {
+            cellOfId = OffHeapIntArray.allocate(maxId + 1);
+            idSlots = null;
+            cellsOfIds = null;
+            for (int cell = 0; cell < cells; cell++) {
+                int id = ids[cell];
+                if (id != EMPTY) {
+                    if (cellOfId.get(id) != 0) {
+                        throw new IllegalArgumentException("Field " + id + " is on the board more than once.");
+                    }
+                    cellOfId.set(id, cell + 1);
+                }
+            }
+        } else {
+            cellOfId = null;
+            // load factor at most 1/2
+            idSlots = OffHeapIntArray.allocate(Math.max(2, Integer.highestOneBit(count) << 2));
+            cellsOfIds = OffHeapIntArray.allocate(idSlots.length());
+            for (long slot = 0; slot < idSlots.length(); slot++) {
+                idSlots.set(slot, EMPTY);
+            }
+            int mask = (int) idSlots.length() - 1;
+            for (int cell = 0; cell < cells; cell++) {
+                int id = ids[cell];
+                if (id != EMPTY) {
+                    int slot = hash(id) & mask;
+                    while (idSlots.get(slot) != EMPTY) {
+                        if (idSlots.get(slot) == id) {
+                            throw new IllegalArgumentException("Field " + id + " is on the board more than once.");
+                        }
+                        slot = (slot + 1) & mask;
+                    }
+                    idSlots.set(slot, id);
+                    cellsOfIds.set(slot, cell);
+                }
+            }
+        }
+
+        this.ids = OffHeapIntArray.allocate(cells);
+        rowOfCell = OffHeapIntArray.allocate(cells);
+        columnOfCell = OffHeapIntArray.allocate(cells);
+        neighbors = OffHeapIntArray.allocate((long) cells * DIRECTIONS);
+        for (int row = 0; row < rows; row++) {
+            for (int cell = rowOffsets[row]; cell < rowOffsets[row + 1]; cell++) {
+                int column = cell - rowOffsets[row];
+                long at = (long) cell * DIRECTIONS;
+                this.ids.set(cell, ids[cell]);
+                rowOfCell.set(cell, row);
+                columnOfCell.set(cell, column);
+                neighbors.set(at + UP, cellAt(row - 1, column));
+                neighbors.set(at + RIGHT, cellAt(row, column + 1));
+                neighbors.set(at + DOWN, cellAt(row + 1, column));
+                neighbors.set(at + LEFT, cellAt(row, column - 1));
+            }
+        }
+    }
+
+    /**
+     * @return Number of cells, including empty ones.
+     */
+    public int getCellCount() {
+        return (int) ids.length();
+    }
+
+    /**
+     * @return Number of cells that are fields.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int getRowCount() {
+        return rowOffsets.length - 1;
+    }
+
+    /**
+     * @return Number of cells in the row.
+     */
+    public int getRowLength(int row) {
+        return rowOffsets[row + 1] - rowOffsets[row];
+    }
+
+    /**
+     * @return Index of the first cell of the row.
+     */
+    public int getRowOffset(int row) {
+        return rowOffsets[row];
+    }
+
+    /**
+     * @return Cell at given position, {@link #EMPTY} if it is outside the grid.
+     */
+    public int cellAt(int row, int column) {
+        if (row < 0 || row >= getRowCount() || column < 0 || column >= getRowLength(row)) {
+            return EMPTY;
+        }
+        return rowOffsets[row] + column;
+    }
+
+    public int getRow(int cell) {
+        return rowOfCell.get(cell);
+    }
+
+    public int getColumn(int cell) {
+        return columnOfCell.get(cell);
+    }
+
+    /**
+     * @return Field id of the cell, {@link #EMPTY} if the cell is empty.
+     */
+    public int getId(int cell) {
+        return ids.get(cell);
+    }
+
+    public boolean isEmpty(int cell) {
+        return ids.get(cell) == EMPTY;
+    }
+
+    /**
+     * @return Cell of the field, {@link #EMPTY} if there is no field with the id.
+     */
+    public int getCell(int id) {
+        if (id < 0 || id > maxId) {
+            return EMPTY;
+        }
+        if (cellOfId != null) {
+            return cellOfId.get(id) - 1;
+        }
+        int mask = (int) idSlots.length() - 1;
+        for (int slot = hash(id) & mask; idSlots.get(slot) != EMPTY; slot = (slot + 1) & mask) {
+            if (idSlots.get(slot) == id) {
+                return cellsOfIds.get(slot);
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * @return Highest field id on the board, {@link #EMPTY} if there are no fields.
+     */
+    public int getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * @param cell      Cell to start from.
+     * @param direction One of {@link #UP}, {@link #RIGHT}, {@link #DOWN}, {@link #LEFT}.
+     * @return Neighboring cell (possibly empty one), {@link #EMPTY} if it is outside the grid.
+     */
+    public int getNeighbor(int cell, int direction) {
+        return neighbors.get((long) cell * DIRECTIONS + direction);
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        // spread higher bits to the lower ones used by the mask
+        return h ^ (h >>> 16);
+    }
+}
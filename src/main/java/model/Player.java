@@ -0,0 +1,55 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Player of the game. Every player has a name and income, other properties of the player block (integers,
+ * booleans and strings) are kept by name.
+ * Players are immutable.
+ */
+public final class Player {
+    private final String name;
+    private final int income;
+    private final Map<String, Object> properties;
+
+    /**
+     * @param name       Name of the player.
+     * @param income     Money the player gets on every pass through the start.
+     * @param properties Other properties, values are {@link Integer}, {@link Boolean} or {@link String}.
+     */
+    public Player(String name, int income, Map<String, Object> properties) {
+        this.name = name;
+        this.income = income;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getIncome() {
+        return income;
+    }
+
+    /**
+     * @return All other properties in order of definition.
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param property Name of boolean property, for example {@code isGOOD}.
+     * @return Value of the property, false if it is not defined or is not boolean.
+     */
+    public boolean getFlag(String property) {
+        return Boolean.TRUE.equals(properties.get(property));
+    }
+
+    @Override
+    public String toString() {
+        return "Player{name=" + name + ", income=" + income + ", " + properties + "}";
+    }
+}
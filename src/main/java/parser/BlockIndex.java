@@ -0,0 +1,283 @@
+package parser;
+
+import model.Board;
+import model.Player;
+import sim.SimulationConfig;
+import util.ByteScanner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Index of top-level {@code name { ... }} blocks of a model, built by a single pass that only matches braces
+ * (strings and comments are skipped, nothing is tokenized). Blocks are lexed and parsed only when they are first
+ * asked for, so loading one block of a large model costs the pre-scan plus the block itself.
+ * <p>
+ * The pre-scan does not validate the model. Text between blocks is ignored, a block without a name has empty name
+ * and a block not closed until the end of input ends there. Errors are found when the block is parsed.
+ * The index is thread safe, every block is parsed at most once. Threads asking for the same block wait for the one
+ * parsing it, different blocks are parsed in parallel. Failed parses are not remembered.
+ */
+public class BlockIndex {
+    private final ByteBuffer src;
+    private final String[] names;
+    private final int[] starts;
+    private final int[] ends;
+    /**
+     * Parsed blocks, null until first asked for.
+     */
+    private final AtomicReferenceArray<CompletableFuture<Object>> parsed;
+
+    private BlockIndex(ByteBuffer src, String[] names, int[] starts, int[] ends) {
+        this.src = src;
+        this.names = names;
+        this.starts = starts;
+        this.ends = ends;
+        this.parsed = new AtomicReferenceArray<>(names.length);
+    }
+
+    /**
+     * Indexes model file, the file is memory mapped.
+     *
+     * @param file UTF-8 encoded model file.
+     * @return Index of its blocks.
+     */
+    public static BlockIndex map(Path file) throws IOException {
+        return scan(ByteLexer.mapFile(file));
+    }
+
+    /**
+     * Indexes blocks between position and limit of the buffer. The buffer is kept to lex blocks later.
+     *
+     * @param src UTF-8 encoded model.
+     * @return Index of its blocks.
+     */
+    public static BlockIndex scan(ByteBuffer src) {
+        List<String> names = new ArrayList<>();
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        int end = src.limit();
+        int depth = 0;
+        // name seen last at depth 0, -1 if something other than spaces followed it
+        int nameStart = -1;
+        int nameEnd = -1;
+        int blockStart = 0;
+        int i = src.position();
+        // view for the scanner, taken once for the whole input
+        ByteBuffer words = ByteScanner.littleEndian(src);
+        while (i < end) {
+            byte b = src.get(i);
+            if (b == '"') {
+                // strings end at quote or line separator
+                i++;
+                while (i < end && src.get(i) != '"' && src.get(i) != '\n' && src.get(i) != '\r') {
+                    i = next(words, i + 1, end);
+                }
+                nameStart = -1;
+            } else if (b == '/' && i + 1 < end && src.get(i + 1) == '/') {
+                i = ByteScanner.indexOfNewLine(words, i + 2, end);
+                if (i < 0) {
+                    break;
+                }
+                continue;
+            } else if (b == '{') {
+                if (depth == 0) {
+                    blockStart = nameStart >= 0 ? nameStart : i;
+                    names.add(nameStart >= 0 ? string(src, nameStart, nameEnd) : "");
+                }
+                depth++;
+            } else if (b == '}') {
+                if (depth > 0 && --depth == 0) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    starts[count] = blockStart;
+                    ends[count] = i + 1;
+                    count++;
+                }
+                nameStart = -1;
+            } else if (depth == 0) {
+                if (isNameByte(b)) {
+                    if (nameStart < 0 || nameEnd != i) {
+                        nameStart = i;
+                    }
+                    nameEnd = i + 1;
+                } else if (b != ' ' && b != '\t') {
+                    // the name must be on the same line as the bracket
+                    nameStart = -1;
+                }
+            }
+            // inside a block only delimiters matter
+            i = depth > 0 ? next(words, i + 1, end) : i + 1;
+        }
+        if (depth > 0) {
+            // not closed block ends with the input
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            starts[count] = blockStart;
+            ends[count] = end;
+            count++;
+        }
+        return new BlockIndex(src, names.toArray(new String[0]), Arrays.copyOf(starts, count),
+                Arrays.copyOf(ends, count));
+    }
+
+    /**
+     * @return Number of blocks.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return Name of the block, empty for block without name.
+     */
+    public String getName(int block) {
+        return names[block];
+    }
+
+    /**
+     * @return Index of the first byte of the block (its name).
+     */
+    public int getStart(int block) {
+        return starts[block];
+    }
+
+    /**
+     * @return Index after the closing bracket of the block.
+     */
+    public int getEnd(int block) {
+        return ends[block];
+    }
+
+    /**
+     * @return Index of the first block with the name, -1 if there is none.
+     */
+    public int find(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Indexes of all blocks with the name, in order of the input.
+     */
+    public List<Integer> findAll(String name) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Lexer of the block alone, its tokens end with {@link Token.Type#T_EOF} after the block.
+     */
+    public ByteLexer lexer(int block) {
+        return new ByteLexer(src.slice(starts[block], ends[block] - starts[block]));
+    }
+
+    /**
+     * Parses {@code board} block on first access.
+     *
+     * @return Parsed board.
+     */
+    public Board getBoard(int block) throws Exception {
+        if (!(parse(block) instanceof Board board)) {
+            throw new Exception("Block " + block + " is not a board.");
+        }
+        return board;
+    }
+
+    /**
+     * Parses {@code player} block on first access.
+     *
+     * @return Parsed player.
+     */
+    public Player getPlayer(int block) throws Exception {
+        if (!(parse(block) instanceof Player player)) {
+            throw new Exception("Block " + block + " is not a player.");
+        }
+        return player;
+    }
+
+    /**
+     * Parses {@code simulation} block on first access.
+     *
+     * @return Parsed config.
+     */
+    public SimulationConfig getSimulationConfig(int block) throws Exception {
+        if (!(parse(block) instanceof SimulationConfig config)) {
+            throw new Exception("Block " + block + " is not a simulation config.");
+        }
+        return config;
+    }
+
+    /**
+     * @return Parsed block, parsed by its name on first access.
+     */
+    private Object parse(int block) throws Exception {
+        CompletableFuture<Object> future = parsed.get(block);
+        if (future == null) {
+            CompletableFuture<Object> own = new CompletableFuture<>();
+            future = parsed.compareAndExchange(block, null, own);
+            if (future == null) {
+                future = own;
+                try {
+                    ModelParser parser = new ModelParser(lexer(block));
+                    own.complete(switch (names[block]) {
+                        case "board" -> parser.parseBoard();
+                        case "player" -> parser.parsePlayer();
+                        case "simulation" -> parser.parseSimulation();
+                        default -> throw new Exception("Block '" + names[block] + "' cannot be parsed.");
+                    });
+                } catch (Throwable e) {
+                    // the next caller tries again
+                    parsed.set(block, null);
+                    own.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * @return Index of the first delimiter from index, the end if there is none.
+     */
+    private static int next(ByteBuffer src, int from, int end) {
+        int i = ByteScanner.indexOfDelimiter(src, from, end);
+        return i < 0 ? end : i;
+    }
+
+    private static boolean isNameByte(byte b) {
+        // bytes of multibyte characters are negative, they can only be letters or digits of a name here
+        return b < 0 || b == '_' || (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static String string(ByteBuffer src, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        src.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,597 @@
+package parser;
+
+import util.ByteScanner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lexical analyzer working directly over UTF-8 encoded bytes (for example a memory mapped file).
+ * Input is addressed by an index cursor, so no characters are ever pushed back. Characters are mapped to classes
+ * (by table lookup for ASCII bytes, other bytes are decoded first) and the state machine is driven by the transition
+ * table of {@link Dfa}.
+ * <p>
+ * Produces exactly the same tokens as {@link Lexer} reading the same text. Characters outside the Basic Multilingual
+ * Plane are classified the way {@link Lexer} sees them, i.e. by their high surrogate.
+ * A single instance is not thread safe.
+ */
+public class ByteLexer implements TokenSource {
+    private static final Token.Type[] TYPES = Token.Type.values();
+    private static final int T_NEWLINE = Token.Type.T_NEWLINE.ordinal();
+    private static final int T_LEFTCB = Token.Type.T_LEFTCB.ordinal();
+    private static final int T_RIGHTCB = Token.Type.T_RIGHTCB.ordinal();
+    private static final int T_EQ = Token.Type.T_EQ.ordinal();
+    private static final int T_COMMA = Token.Type.T_COMMA.ordinal();
+    private static final int T_STR = Token.Type.T_STR.ordinal();
+    private static final int T_INT = Token.Type.T_INT.ordinal();
+    private static final int T_BOOL = Token.Type.T_BOOL.ordinal();
+    private static final int T_NAME = Token.Type.T_NAME.ordinal();
+    private static final int T_EOF = Token.Type.T_EOF.ordinal();
+    private static final int T_FIELD = Token.Type.T_FIELD.ordinal();
+    private static final int T_FIELDEMPTY = Token.Type.T_FIELDEMPTY.ordinal();
+    private static final LexError[] ERRORS = LexError.values();
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final ByteBuffer src;
+    /**
+     * Little endian view of src for {@link ByteScanner}, taken at the first error.
+     */
+    private ByteBuffer words;
+    private final SymbolTable symbols;
+    private final int end;
+    private int pos;
+
+    /**
+     * Width in bytes of the last character returned by {@link #decode(int)}.
+     */
+    private int width;
+
+    /**
+     * Value of the last token found by {@link #next()}.
+     */
+    private int value;
+    private int valueStart;
+    private int valueEnd;
+
+    /**
+     * Set by {@link #parseInt(int, int)} if the number does not fit into int.
+     */
+    private boolean overflow;
+
+    /**
+     * Current line (first is 1) and index of its first byte.
+     */
+    private int line;
+    private int lineStart;
+
+    /**
+     * Where to record errors, null if errors are thrown.
+     */
+    private Diagnostics diagnostics;
+
+    /**
+     * Metrics to collect, null if disabled. The rest is used only with metrics.
+     */
+    private LexMetrics metrics;
+    private LexEvent event;
+    private int inputStart;
+    private long tokens;
+    private long errors;
+
+    /**
+     * @param bytes UTF-8 encoded input.
+     */
+    public ByteLexer(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Lexes bytes between position and limit of the buffer. Position and limit of the buffer are never modified.
+     *
+     * @param src UTF-8 encoded input.
+     */
+    public ByteLexer(ByteBuffer src) {
+        this(src, null);
+    }
+
+    /**
+     * Lexes bytes between position and limit of the buffer, interning names and strings.
+     * Position and limit of the buffer are never modified.
+     *
+     * @param src     UTF-8 encoded input.
+     * @param symbols Table to intern values of {@link Token.Type#T_NAME} and {@link Token.Type#T_STR} into,
+     *                null to not intern them.
+     */
+    public ByteLexer(ByteBuffer src, SymbolTable symbols) {
+        this.src = src;
+        this.symbols = symbols;
+        this.pos = src.position();
+        this.end = src.limit();
+        this.line = 1;
+        this.lineStart = pos;
+    }
+
+    /**
+     * Creates lexer over memory mapped file.
+     *
+     * @param file UTF-8 encoded file, at most 2 GB large.
+     * @return Lexer of the whole file.
+     */
+    public static ByteLexer map(Path file) throws IOException {
+        return map(file, null);
+    }
+
+    /**
+     * Creates lexer over memory mapped file.
+     *
+     * @param file    UTF-8 encoded file, at most 2 GB large.
+     * @param symbols Table to intern names and strings into, null to not intern them.
+     * @return Lexer of the whole file.
+     */
+    public static ByteLexer map(Path file, SymbolTable symbols) throws IOException {
+        return new ByteLexer(mapFile(file), symbols);
+    }
+
+    /**
+     * Maps whole file into memory.
+     *
+     * @param file File, at most 2 GB large.
+     * @return Read only buffer.
+     */
+    static ByteBuffer mapFile(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("File '" + file + "' is too large to be mapped.");
+            }
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+    }
+
+    /**
+     * Getter for the cursor.
+     *
+     * @return Index of the next byte to be read.
+     */
+    public int getPosition() {
+        return pos;
+    }
+
+    /**
+     * Getter for line of the cursor.
+     *
+     * @return Line of the next byte to be read, first line is 1.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Starts collecting metrics, must be called before the first token is read.
+     *
+     * @param metrics Metrics to add to.
+     * @param source  Description of the input (e.g. file name) for {@link LexEvent}, may be null.
+     */
+    public void setMetrics(LexMetrics metrics, String source) {
+        this.metrics = metrics;
+        this.event = metrics.begin(source);
+        this.inputStart = pos;
+    }
+
+    @Override
+    public Token readToken() throws Exception {
+        int ordinal = next();
+        if (metrics != null) {
+            metrics.token(ordinal);
+            tokens++;
+            if (ordinal == T_EOF) {
+                finish();
+            }
+        }
+        Token.Type type = TYPES[ordinal];
+        return switch (type) {
+            case T_STR, T_NAME -> symbols == null
+                    ? new Token(type, string(valueStart, valueEnd))
+                    : new Token(type, symbols.getName(value), value);
+            case T_INT, T_FIELD -> new Token(type, value);
+            case T_BOOL -> new Token(type, value == 1);
+            default -> new Token(type, null);
+        };
+    }
+
+    /**
+     * Reads all remaining tokens into the buffer. Nothing is allocated except for growing the buffer.
+     *
+     * @param out Buffer to append tokens to, the last one appended is {@link Token.Type#T_EOF}.
+     */
+    public void tokenize(TokenBuffer out) throws Exception {
+        out.setSource(src);
+        int first = out.size();
+        int type;
+        do {
+            type = next();
+            if (type == T_STR || type == T_NAME) {
+                out.add(type, value, valueStart, valueEnd - valueStart);
+            } else if (type == T_INT || type == T_FIELD || type == T_BOOL) {
+                out.add(type, value);
+            } else {
+                out.add(type);
+            }
+        } while (type != T_EOF);
+        if (metrics != null) {
+            // counted from the buffer, so the loop stays the same with metrics
+            int[] counts = new int[TYPES.length];
+            for (int i = first; i < out.size(); i++) {
+                counts[out.getTypeOrdinal(i)]++;
+            }
+            metrics.tokens(counts);
+            tokens += out.size() - first;
+            finish();
+        }
+    }
+
+    /**
+     * Reads all remaining tokens into the buffer without throwing on lexical errors. Every error is recorded into
+     * diagnostics and the rest of its line is skipped, tokens continue with {@link Token.Type#T_NEWLINE} ending that
+     * line (or {@link Token.Type#T_EOF}).
+     *
+     * @param out         Buffer to append tokens to, the last one appended is {@link Token.Type#T_EOF}.
+     * @param diagnostics Buffer to append errors to.
+     */
+    public void tokenize(TokenBuffer out, Diagnostics diagnostics) throws Exception {
+        this.diagnostics = diagnostics;
+        try {
+            tokenize(out);
+        } finally {
+            this.diagnostics = null;
+        }
+    }
+
+    /**
+     * Checks the whole remaining input without producing tokens and without throwing on lexical errors.
+     * Errors are recorded the same way as by {@link #tokenize(TokenBuffer, Diagnostics)}.
+     *
+     * @param diagnostics Buffer to append errors to.
+     * @return Number of errors found.
+     */
+    public int validate(Diagnostics diagnostics) throws Exception {
+        int before = diagnostics.size();
+        this.diagnostics = diagnostics;
+        try {
+            int type;
+            do {
+                type = next();
+                if (metrics != null) {
+                    metrics.token(type);
+                    tokens++;
+                }
+            } while (type != T_EOF);
+            if (metrics != null) {
+                finish();
+            }
+        } finally {
+            this.diagnostics = null;
+        }
+        return diagnostics.size() - before;
+    }
+
+    /**
+     * Finds next token, driven by {@link Dfa}. Value of the token is left in {@link #value} (integers, ids and
+     * booleans as 0/1) or as the range [{@link #valueStart}, {@link #valueEnd}) of the input (strings and names,
+     * {@link #value} is then their symbol id if there is a {@link SymbolTable}).
+     *
+     * @return Ordinal of the token's {@link Token.Type}.
+     */
+    private int next() throws Exception {
+        int state = State.LEX_S.ordinal();
+        // first byte of token's value and end of field's id
+        int start = pos;
+        int digitsEnd = pos;
+        value = 0;
+        valueStart = 0;
+        valueEnd = 0;
+        while (true) {
+            int at = pos;
+            int cls;
+            if (at >= end) {
+                cls = Dfa.C_EOF;
+            } else {
+                byte b = src.get(at);
+                if (b >= 0) {
+                    cls = Dfa.classifyAscii(b);
+                    pos = at + 1;
+                } else {
+                    cls = Dfa.classifyUnicode(decode(at));
+                    pos = at + width;
+                }
+            }
+            int transition = Dfa.lookup(state, cls);
+            state = transition & 0xFF;
+            switch (transition >>> 8) {
+                case Dfa.A_NEXT -> {
+                }
+                case Dfa.A_MARK -> start = at;
+                case Dfa.A_MARK_AFTER -> start = pos;
+                case Dfa.A_DIGITS_END -> digitsEnd = at;
+                case Dfa.A_LEFTCB -> {
+                    return T_LEFTCB;
+                }
+                case Dfa.A_RIGHTCB -> {
+                    return T_RIGHTCB;
+                }
+                case Dfa.A_EQ -> {
+                    return T_EQ;
+                }
+                case Dfa.A_COMMA -> {
+                    return T_COMMA;
+                }
+                case Dfa.A_EOF -> {
+                    return T_EOF;
+                }
+                case Dfa.A_NEWLINE -> {
+                    newLine();
+                    return T_NEWLINE;
+                }
+                case Dfa.A_NEWLINE_CR -> {
+                    skipLineFeed();
+                    newLine();
+                    return T_NEWLINE;
+                }
+                case Dfa.A_STR -> {
+                    return text(T_STR, start, at);
+                }
+                case Dfa.A_INT -> {
+                    pos = at;
+                    value = parseInt(start, at);
+                    return overflow ? overflow(start, at) : T_INT;
+                }
+                case Dfa.A_NAME -> {
+                    pos = at;
+                    if (matches(start, at, TRUE)) {
+                        value = 1;
+                        return T_BOOL;
+                    } else if (matches(start, at, FALSE)) {
+                        return T_BOOL;
+                    }
+                    return text(T_NAME, start, at);
+                }
+                case Dfa.A_FIELD -> {
+                    value = parseInt(start, at);
+                    return overflow ? overflow(start, at) : T_FIELD;
+                }
+                case Dfa.A_FIELD_SPACED -> {
+                    value = parseInt(start, digitsEnd);
+                    return overflow ? overflow(start, digitsEnd) : T_FIELD;
+                }
+                case Dfa.A_FIELDEMPTY -> {
+                    return T_FIELDEMPTY;
+                }
+                default -> {
+                    // the state holds the kind of error
+                    if (diagnostics == null) {
+                        throw failed(ERRORS[state], Lexer.unsupported(charAt(at)));
+                    }
+                    return recover(ERRORS[state], at);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles number in range [from, to) that does not fit into int.
+     */
+    private int overflow(int from, int to) throws Exception {
+        if (diagnostics == null) {
+            throw failed(LexError.INT_OVERFLOW,
+                    new NumberFormatException("For input string: \"" + string(from, to) + "\""));
+        }
+        return recover(LexError.INT_OVERFLOW, from);
+    }
+
+    /**
+     * Records error and skips the rest of its line.
+     *
+     * @param error Kind of error.
+     * @param at    Index of the error, the line is skipped from here.
+     * @return {@link #T_NEWLINE} ending the line, {@link #T_EOF} if it is the last line.
+     */
+    private int recover(LexError error, int at) {
+        int column = 1;
+        for (int i = lineStart; i < at; i++) {
+            // count characters, not continuation bytes
+            if ((src.get(i) & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+        diagnostics.add(error, line, column);
+        if (metrics != null) {
+            metrics.error(error);
+            errors++;
+        }
+        if (words == null) {
+            words = ByteScanner.littleEndian(src);
+        }
+        int i = ByteScanner.indexOfNewLine(words, at, end);
+        if (i < 0) {
+            pos = end;
+            return T_EOF;
+        }
+        pos = i + 1;
+        if (src.get(i) == '\r') {
+            skipLineFeed();
+        }
+        newLine();
+        return T_NEWLINE;
+    }
+
+    /**
+     * Counts error that is going to be thrown, the input ends with it.
+     */
+    private <E extends Exception> E failed(LexError error, E e) {
+        if (metrics != null) {
+            metrics.error(error);
+            errors++;
+            finish();
+        }
+        return e;
+    }
+
+    /**
+     * Reports the end of input to metrics, only once.
+     */
+    private void finish() {
+        if (event != null) {
+            metrics.end(event, pos - inputStart, tokens, errors, 0);
+            event = null;
+        }
+    }
+
+    private void newLine() {
+        line++;
+        lineStart = pos;
+    }
+
+    /**
+     * Remembers range of string or name value.
+     */
+    private int text(int type, int from, int to) {
+        valueStart = from;
+        valueEnd = to;
+        if (symbols != null) {
+            value = symbols.intern(src, from, to - from);
+        }
+        return type;
+    }
+
+    /**
+     * Parses integer written in range [from, to) of the input, optionally starting with '-'.
+     * Accepts the same digits as {@link Integer#parseInt(String)}, sets {@link #overflow} if it does not fit into int.
+     */
+    private int parseInt(int from, int to) {
+        overflow = false;
+        boolean negative = src.get(from) == '-';
+        // accumulated negatively, so that Integer.MIN_VALUE fits
+        int result = 0;
+        int i = negative ? from + 1 : from;
+        while (i < to) {
+            byte b = src.get(i);
+            int digit;
+            if (b >= 0) {
+                digit = b - '0';
+                i++;
+            } else {
+                digit = Character.digit(decode(i), 10);
+                i += width;
+            }
+            if (result < (Integer.MIN_VALUE + digit) / 10) {
+                overflow = true;
+                return 0;
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative) {
+            if (result == Integer.MIN_VALUE) {
+                overflow = true;
+                return 0;
+            }
+            result = -result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if range [from, to) of the input consists of given ASCII bytes.
+     */
+    private boolean matches(int from, int to, byte[] ascii) {
+        if (to - from != ascii.length) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length; i++) {
+            if (src.get(from + i) != ascii[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Character starting at given index, -1 past the end of input.
+     */
+    private int charAt(int i) {
+        if (i >= end) {
+            return -1;
+        }
+        byte b = src.get(i);
+        return b >= 0 ? b : decode(i);
+    }
+
+    /**
+     * Consumes LF following already read CR, if there is one.
+     */
+    private void skipLineFeed() {
+        if (pos < end && src.get(pos) == '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * Decodes multibyte UTF-8 sequence starting at given index and sets {@link #width}.
+     * Malformed sequences decode to U+FFFD one byte at a time, as the JDK decoder does.
+     *
+     * @param i Index of the first byte of the sequence.
+     * @return Code point.
+     */
+    private int decode(int i) {
+        int b0 = src.get(i) & 0xFF;
+        int n;
+        int cp;
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            n = 1;
+            cp = b0 & 0x1F;
+        } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+            n = 2;
+            cp = b0 & 0x0F;
+        } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+            n = 3;
+            cp = b0 & 0x07;
+        } else {
+            width = 1;
+            return 0xFFFD;
+        }
+        if (i + n >= end) {
+            width = 1;
+            return 0xFFFD;
+        }
+        for (int k = 1; k <= n; k++) {
+            int b = src.get(i + k) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                width = 1;
+                return 0xFFFD;
+            }
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        // overlong forms, surrogates and values past U+10FFFF
+        if ((n == 2 && (cp < 0x800 || Character.isSurrogate((char) cp))) || (n == 3 && (cp < 0x10000 || cp > 0x10FFFF))) {
+            width = 1;
+            return 0xFFFD;
+        }
+        width = n + 1;
+        return cp;
+    }
+
+    /**
+     * Decodes bytes in range [from, to) into string.
+     */
+    private String string(int from, int to) {
+        if (src.hasArray()) {
+            return new String(src.array(), src.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[to - from];
+        src.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,205 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lexed model file in a form that can be stored in a compact binary file and mapped back without lexing again.
+ * <p>
+ * Binary layout (big endian):
+ * <pre>
+ * int magic, int version, int tokenCount, int symbolCount, int poolLength
+ * int[symbolCount] offsets of symbols in pool
+ * int[symbolCount] lengths of symbols
+ * byte[poolLength] pool of UTF-8 encoded symbols
+ * byte[tokenCount] types, padded to multiple of 4
+ * int[tokenCount] values (symbol id for names and strings)
+ * </pre>
+ * Offsets of names and strings in a loaded {@link TokenBuffer} point into the pool of the mapped file.
+ */
+public class CompiledModel {
+    static final int MAGIC = 0x4D42474D;
+    /**
+     * Version of the binary layout, must change whenever the layout or the lexer output changes.
+     */
+    static final int VERSION = 1;
+    private static final int HEADER = 5 * Integer.BYTES;
+    private static final int T_STR = Token.Type.T_STR.ordinal();
+    private static final int T_NAME = Token.Type.T_NAME.ordinal();
+    private static final int T_INT = Token.Type.T_INT.ordinal();
+    private static final int T_FIELD = Token.Type.T_FIELD.ordinal();
+    private static final int T_BOOL = Token.Type.T_BOOL.ordinal();
+    private static final int TYPE_COUNT = Token.Type.values().length;
+
+    private final TokenBuffer tokens;
+    private final SymbolTable symbols;
+
+    /**
+     * @param tokens  Tokens, values of names and strings must be ids in symbols.
+     * @param symbols Symbols of the tokens.
+     */
+    public CompiledModel(TokenBuffer tokens, SymbolTable symbols) {
+        this.tokens = tokens;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Lexes model.
+     *
+     * @param src UTF-8 encoded model, bytes between position and limit are lexed.
+     * @return Compiled model.
+     */
+    public static CompiledModel compile(ByteBuffer src) throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        TokenBuffer tokens = new TokenBuffer();
+        new ByteLexer(src, symbols).tokenize(tokens);
+        return new CompiledModel(tokens, symbols);
+    }
+
+    /**
+     * Lexes model file.
+     *
+     * @param file UTF-8 encoded model file.
+     * @return Compiled model.
+     */
+    public static CompiledModel compile(Path file) throws Exception {
+        return compile(ByteLexer.mapFile(file));
+    }
+
+    /**
+     * @return Tokens of the model.
+     */
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return Symbols of names and strings of the model.
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Writes model in binary form. The file is written under a temporary name and then moved, so readers never see
+     * a partially written file.
+     *
+     * @param file File to write to.
+     */
+    public void write(Path file) throws IOException {
+        int symbolCount = symbols.size();
+        int poolLength = 0;
+        for (int id = 0; id < symbolCount; id++) {
+            poolLength += symbols.getBytes(id).length;
+        }
+        int count = tokens.size();
+        long size = HEADER + 8L * symbolCount + poolLength + padded(count) + 4L * count;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Model is too large to be compiled.");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(symbolCount).putInt(poolLength);
+        int offset = 0;
+        for (int id = 0; id < symbolCount; id++) {
+            out.putInt(offset);
+            offset += symbols.getBytes(id).length;
+        }
+        for (int id = 0; id < symbolCount; id++) {
+            out.putInt(symbols.getBytes(id).length);
+        }
+        for (int id = 0; id < symbolCount; id++) {
+            out.put(symbols.getBytes(id));
+        }
+        for (int i = 0; i < count; i++) {
+            out.put((byte) tokens.getTypeOrdinal(i));
+        }
+        out.position(out.position() + padded(count) - count);
+        for (int i = 0; i < count; i++) {
+            int type = tokens.getTypeOrdinal(i);
+            // columns without meaning for the type are not defined, store zero instead
+            boolean hasValue = type == T_STR || type == T_NAME || type == T_INT || type == T_FIELD || type == T_BOOL;
+            out.putInt(hasValue ? tokens.getValue(i) : 0);
+        }
+        out.flip();
+
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    ch.write(out);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps model written by {@link #write(Path)} back.
+     *
+     * @param file Binary model file.
+     * @return Compiled model.
+     */
+    public static CompiledModel read(Path file) throws IOException {
+        ByteBuffer in = ByteLexer.mapFile(file);
+        try {
+            if (in.getInt(0) != MAGIC || in.getInt(4) != VERSION) {
+                throw new IOException("File '" + file + "' is not a compiled model of version " + VERSION + ".");
+            }
+            int count = in.getInt(8);
+            int symbolCount = in.getInt(12);
+            int poolLength = in.getInt(16);
+            int pool = HEADER + 8 * symbolCount;
+            int typesStart = pool + poolLength;
+            int valuesStart = typesStart + padded(count);
+            if (count < 1 || symbolCount < 0 || poolLength < 0 || valuesStart + 4L * count != in.limit()) {
+                throw new IOException("File '" + file + "' is corrupted.");
+            }
+
+            SymbolTable symbols = new SymbolTable();
+            int[] symbolOffsets = new int[symbolCount];
+            int[] symbolLengths = new int[symbolCount];
+            for (int id = 0; id < symbolCount; id++) {
+                symbolOffsets[id] = pool + in.getInt(HEADER + 4 * id);
+                symbolLengths[id] = in.getInt(HEADER + 4 * (symbolCount + id));
+                if (symbolLengths[id] < 0 || symbolOffsets[id] + symbolLengths[id] > typesStart
+                        || symbols.intern(in, symbolOffsets[id], symbolLengths[id]) != id) {
+                    throw new IOException("File '" + file + "' is corrupted.");
+                }
+            }
+
+            int[] types = new int[count];
+            for (int i = 0; i < count; i++) {
+                types[i] = in.get(typesStart + i);
+                if (types[i] < 0 || types[i] >= TYPE_COUNT) {
+                    throw new IOException("File '" + file + "' is corrupted.");
+                }
+            }
+            int[] values = new int[count];
+            in.slice(valuesStart, 4 * count).asIntBuffer().get(values);
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                if (types[i] == T_STR || types[i] == T_NAME) {
+                    offsets[i] = symbolOffsets[values[i]];
+                    lengths[i] = symbolLengths[values[i]];
+                }
+            }
+            TokenBuffer tokens = new TokenBuffer(1);
+            tokens.setColumns(types, values, offsets, lengths, count, in);
+            return new CompiledModel(tokens, symbols);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("File '" + file + "' is corrupted.", e);
+        }
+    }
+
+    private static int padded(int count) {
+        return (count + 3) & ~3;
+    }
+}
@@ -0,0 +1,73 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Disk cache of {@link CompiledModel}s keyed by SHA-256 of the model file's content.
+ * A model file is lexed only the first time its content is seen, afterwards the compiled form is mapped back.
+ * Several processes can share one cache directory, entries are written atomically.
+ */
+public class CompiledModelCache {
+    private static final String SUFFIX = ".mbgc";
+    private final Path dir;
+
+    /**
+     * @param dir Directory to store compiled models in, created if it does not exist.
+     */
+    public CompiledModelCache(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    /**
+     * Loads model file, from the cache if its content was already compiled.
+     *
+     * @param file UTF-8 encoded model file.
+     * @return Compiled model.
+     */
+    public CompiledModel load(Path file) throws Exception {
+        ByteBuffer src = ByteLexer.mapFile(file);
+        Path entry = entry(src);
+        if (Files.exists(entry)) {
+            try {
+                return CompiledModel.read(entry);
+            } catch (IOException e) {
+                // corrupted or of older version, compile again
+            }
+        }
+        CompiledModel model = CompiledModel.compile(src);
+        model.write(entry);
+        return model;
+    }
+
+    /**
+     * @param src Content of model file.
+     * @return Path of the cache entry for given content.
+     */
+    Path entry(ByteBuffer src) {
+        return dir.resolve(hash(src) + "-v" + CompiledModel.VERSION + SUFFIX);
+    }
+
+    /**
+     * @return Hexadecimal SHA-256 of bytes between position and limit of the buffer.
+     */
+    static String hash(ByteBuffer src) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(src.duplicate());
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
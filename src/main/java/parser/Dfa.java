@@ -0,0 +1,313 @@
+package parser;
+
+/**
+ * Transition table of the lexer's state machine, generated from {@link State} when the class is loaded.
+ * Characters are first mapped to a small number of classes (a table lookup for ASCII, Unicode checks only for the
+ * rest), then {@link #transition(State, int)} gives the action and the next state.
+ * <p>
+ * Every entry is {@code action << 8 | nextState.ordinal()}, for {@link #A_ERROR} it is
+ * {@code A_ERROR << 8 | lexError.ordinal()}.
+ */
+final class Dfa {
+    // character classes
+    static final int C_EOF = 0;
+    static final int C_LBRACE = 1;
+    static final int C_RBRACE = 2;
+    static final int C_EQ = 3;
+    static final int C_COMMA = 4;
+    static final int C_QUOTE = 5;
+    static final int C_SLASH = 6;
+    static final int C_LPAREN = 7;
+    static final int C_RPAREN = 8;
+    static final int C_MINUS = 9;
+    static final int C_ZERO = 10;
+    /**
+     * '1' to '9'.
+     */
+    static final int C_DIGIT = 11;
+    /**
+     * Digit that is not ASCII, it is a digit everywhere except the start of a number.
+     */
+    static final int C_UDIGIT = 12;
+    static final int C_X = 13;
+    /**
+     * Letter (other than x) or '_'.
+     */
+    static final int C_LETTER = 14;
+    static final int C_SPACE = 15;
+    static final int C_CR = 16;
+    static final int C_LF = 17;
+    /**
+     * ISO control character other than CR and LF.
+     */
+    static final int C_CTRL = 18;
+    static final int C_OTHER = 19;
+    static final int CLASSES = 20;
+
+    // actions
+    /**
+     * Consume character and continue in the next state.
+     */
+    static final int A_NEXT = 0;
+    /**
+     * Value starts with this character.
+     */
+    static final int A_MARK = 1;
+    /**
+     * Value starts after this character.
+     */
+    static final int A_MARK_AFTER = 2;
+    /**
+     * Digits of field's id end before this character.
+     */
+    static final int A_DIGITS_END = 3;
+    static final int A_LEFTCB = 4;
+    static final int A_RIGHTCB = 5;
+    static final int A_EQ = 6;
+    static final int A_COMMA = 7;
+    static final int A_EOF = 8;
+    /**
+     * LF or CR not followed by LF.
+     */
+    static final int A_NEWLINE = 9;
+    /**
+     * CR, LF following it belongs to the same line separator.
+     */
+    static final int A_NEWLINE_CR = 10;
+    /**
+     * String ends with this character.
+     */
+    static final int A_STR = 11;
+    /**
+     * Integer ends before this character.
+     */
+    static final int A_INT = 12;
+    /**
+     * Name or bool ends before this character.
+     */
+    static final int A_NAME = 13;
+    /**
+     * Field with id ends with this character, id ends before it.
+     */
+    static final int A_FIELD = 14;
+    /**
+     * Field with id ends with this character, id ended at {@link #A_DIGITS_END}.
+     */
+    static final int A_FIELD_SPACED = 15;
+    static final int A_FIELDEMPTY = 16;
+    /**
+     * Character is not allowed, the rest of the entry is ordinal of {@link LexError}.
+     */
+    static final int A_ERROR = 17;
+
+    private static final State[] STATES = State.values();
+    private static final byte[] ASCII = new byte[128];
+    private static final int[] TABLE = new int[STATES.length * CLASSES];
+
+    static {
+        for (int c = 0; c < ASCII.length; c++) {
+            ASCII[c] = (byte) classifyUnicode(c);
+        }
+        for (State s : STATES) {
+            for (int cls = 0; cls < CLASSES; cls++) {
+                TABLE[s.ordinal() * CLASSES + cls] = transition(s, cls);
+            }
+        }
+    }
+
+    private Dfa() {
+    }
+
+    /**
+     * @return Class of ASCII character.
+     */
+    static int classifyAscii(int c) {
+        return ASCII[c];
+    }
+
+    /**
+     * Classifies any character, -1 is end of input. Characters outside the Basic Multilingual Plane are classified
+     * by their high surrogate, as {@link Lexer} sees them.
+     *
+     * @return Class of character.
+     */
+    static int classifyUnicode(int c) {
+        switch (c) {
+            case -1 -> {
+                return C_EOF;
+            }
+            case '{' -> {
+                return C_LBRACE;
+            }
+            case '}' -> {
+                return C_RBRACE;
+            }
+            case '=' -> {
+                return C_EQ;
+            }
+            case ',' -> {
+                return C_COMMA;
+            }
+            case '"' -> {
+                return C_QUOTE;
+            }
+            case '/' -> {
+                return C_SLASH;
+            }
+            case '(' -> {
+                return C_LPAREN;
+            }
+            case ')' -> {
+                return C_RPAREN;
+            }
+            case '-' -> {
+                return C_MINUS;
+            }
+            case '0' -> {
+                return C_ZERO;
+            }
+            case 'x' -> {
+                return C_X;
+            }
+            case '_' -> {
+                return C_LETTER;
+            }
+            case '\r' -> {
+                return C_CR;
+            }
+            case '\n' -> {
+                return C_LF;
+            }
+        }
+        if (c > 0xFFFF) {
+            c = Character.highSurrogate(c);
+        }
+        if (c >= '1' && c <= '9') {
+            return C_DIGIT;
+        } else if (Character.isISOControl(c)) {
+            return C_CTRL;
+        } else if (Character.isDigit(c)) {
+            return C_UDIGIT;
+        } else if (Character.isLetter(c)) {
+            return C_LETTER;
+        } else if (Character.isSpaceChar(c)) {
+            return C_SPACE;
+        }
+        return C_OTHER;
+    }
+
+    /**
+     * Looks up transition.
+     *
+     * @param state Ordinal of current state.
+     * @param cls   Class of read character.
+     * @return {@code action << 8 | nextState} or {@code A_ERROR << 8 | lexError}.
+     */
+    static int lookup(int state, int cls) {
+        return TABLE[state * CLASSES + cls];
+    }
+
+    /**
+     * Defines the state machine, mirrors {@link Lexer#readToken()}.
+     */
+    private static int transition(State s, int cls) {
+        switch (s) {
+            case LEX_S -> {
+                return switch (cls) {
+                    case C_LBRACE -> to(A_LEFTCB, State.LEX_S);
+                    case C_RBRACE -> to(A_RIGHTCB, State.LEX_S);
+                    case C_EQ -> to(A_EQ, State.LEX_S);
+                    case C_COMMA -> to(A_COMMA, State.LEX_S);
+                    case C_QUOTE -> to(A_MARK_AFTER, State.LEX_STR1);
+                    case C_SLASH -> to(A_NEXT, State.LEX_COMMENT1);
+                    case C_DIGIT -> to(A_MARK, State.LEX_INT);
+                    case C_LPAREN -> to(A_NEXT, State.LEX_FIELD1);
+                    case C_MINUS -> to(A_MARK, State.LEX_MINUS);
+                    case C_EOF -> to(A_EOF, State.LEX_S);
+                    case C_CR -> to(A_NEWLINE_CR, State.LEX_S);
+                    case C_LF -> to(A_NEWLINE, State.LEX_S);
+                    case C_X, C_LETTER -> to(A_MARK, State.LEX_NAME);
+                    case C_SPACE -> to(A_NEXT, State.LEX_S);
+                    default -> error(LexError.UNSUPPORTED_CHARACTER);
+                };
+            }
+            case LEX_STR1 -> {
+                return switch (cls) {
+                    case C_QUOTE -> to(A_STR, State.LEX_S);
+                    case C_EOF, C_CR, C_LF -> error(LexError.UNTERMINATED_STRING);
+                    case C_CTRL -> error(LexError.CONTROL_CHARACTER_IN_STRING);
+                    default -> to(A_NEXT, State.LEX_STR1);
+                };
+            }
+            case LEX_COMMENT1 -> {
+                return cls == C_SLASH ? to(A_NEXT, State.LEX_COMMENTF) : error(LexError.INVALID_COMMENT);
+            }
+            case LEX_COMMENTF -> {
+                return switch (cls) {
+                    case C_CR -> to(A_NEWLINE_CR, State.LEX_S);
+                    case C_LF -> to(A_NEWLINE, State.LEX_S);
+                    // comment on the last line of the file
+                    case C_EOF -> to(A_EOF, State.LEX_S);
+                    default -> to(A_NEXT, State.LEX_COMMENTF);
+                };
+            }
+            case LEX_INT -> {
+                return isDigit(cls) ? to(A_NEXT, State.LEX_INT) : to(A_INT, State.LEX_S);
+            }
+            case LEX_NAME -> {
+                return isDigit(cls) || cls == C_X || cls == C_LETTER
+                        ? to(A_NEXT, State.LEX_NAME) : to(A_NAME, State.LEX_S);
+            }
+            case LEX_FIELD1 -> {
+                if (isDigit(cls)) {
+                    return to(A_MARK, State.LEX_FIELD2);
+                }
+                return switch (cls) {
+                    case C_X -> to(A_NEXT, State.LEX_FIELDX);
+                    case C_SPACE -> to(A_NEXT, State.LEX_FIELD1);
+                    default -> error(LexError.INVALID_FIELD);
+                };
+            }
+            case LEX_FIELD2 -> {
+                if (isDigit(cls)) {
+                    return to(A_NEXT, State.LEX_FIELD2);
+                }
+                return switch (cls) {
+                    case C_SPACE -> to(A_DIGITS_END, State.LEX_FIELD3);
+                    case C_RPAREN -> to(A_FIELD, State.LEX_S);
+                    default -> error(LexError.INVALID_FIELD);
+                };
+            }
+            case LEX_FIELD3 -> {
+                return switch (cls) {
+                    case C_RPAREN -> to(A_FIELD_SPACED, State.LEX_S);
+                    case C_SPACE -> to(A_NEXT, State.LEX_FIELD3);
+                    default -> error(LexError.INVALID_FIELD);
+                };
+            }
+            case LEX_FIELDX -> {
+                return switch (cls) {
+                    case C_RPAREN -> to(A_FIELDEMPTY, State.LEX_S);
+                    case C_SPACE -> to(A_NEXT, State.LEX_FIELDX);
+                    default -> error(LexError.INVALID_FIELD);
+                };
+            }
+            case LEX_MINUS -> {
+                return cls == C_DIGIT || cls == C_UDIGIT ? to(A_NEXT, State.LEX_INT) : error(LexError.INVALID_NUMBER);
+            }
+            default -> throw new IllegalStateException("There is a state of Lex that is not in Dfa table.");
+        }
+    }
+
+    private static boolean isDigit(int cls) {
+        return cls == C_ZERO || cls == C_DIGIT || cls == C_UDIGIT;
+    }
+
+    private static int to(int action, State next) {
+        return action << 8 | next.ordinal();
+    }
+
+    private static int error(LexError error) {
+        return A_ERROR << 8 | error.ordinal();
+    }
+}
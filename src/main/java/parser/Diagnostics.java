@@ -0,0 +1,91 @@
+package parser;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of lexical errors with their positions, filled by {@link ByteLexer} in validation mode.
+ * Once grown, a buffer can be {@link #clear() cleared} and reused for the next input without allocating.
+ */
+public class Diagnostics {
+    private static final LexError[] ERRORS = LexError.values();
+
+    private int[] codes;
+    private int[] lines;
+    private int[] columns;
+    private int size;
+
+    public Diagnostics() {
+        this.codes = new int[16];
+        this.lines = new int[16];
+        this.columns = new int[16];
+        this.size = 0;
+    }
+
+    /**
+     * Removes all errors, capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Records an error.
+     *
+     * @param error  Kind of error.
+     * @param line   Line of the error, first line is 1.
+     * @param column Column (in characters) of the error, first column is 1.
+     */
+    public void add(LexError error, int line, int column) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+            columns = Arrays.copyOf(columns, size * 2);
+        }
+        codes[size] = error.ordinal();
+        lines[size] = line;
+        columns[size] = column;
+        size++;
+    }
+
+    /**
+     * @return Number of recorded errors.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Kind of i-th error.
+     */
+    public LexError getError(int i) {
+        return ERRORS[codes[checkIndex(i)]];
+    }
+
+    /**
+     * @return Line of i-th error, first line is 1.
+     */
+    public int getLine(int i) {
+        return lines[checkIndex(i)];
+    }
+
+    /**
+     * @return Column of i-th error, first column is 1.
+     */
+    public int getColumn(int i) {
+        return columns[checkIndex(i)];
+    }
+
+    /**
+     * @return Description of i-th error in form {@code line:column: description}.
+     */
+    public String getMessage(int i) {
+        return getLine(i) + ":" + getColumn(i) + ": " + getError(i).getDescription();
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Error index " + i + " out of bounds for size " + size + ".");
+        }
+        return i;
+    }
+}
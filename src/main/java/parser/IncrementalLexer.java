@@ -0,0 +1,265 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps tokens of a model text line by line, so after an edit only the affected lines are lexed again.
+ * <p>
+ * Lines end with a line separator (CR, LF or CR LF, the same ones {@link util.LineSeparator} accepts), the last
+ * line is the rest of the text after the last separator and may be empty. No token can span lines: a line separator
+ * ends a comment and is not allowed in a string, and the lexer always starts a line in its initial state. That is
+ * why tokens of all lines joined together are exactly the tokens of the whole text. An edit can still change where
+ * lines end (e.g. by inserting LF after CR), so the lines around the edit are always lexed again too.
+ * <p>
+ * A single instance is not thread safe.
+ */
+public class IncrementalLexer {
+    private final List<Line> lines = new ArrayList<>();
+    /**
+     * Offset of every line in the text, valid for lines before {@link #startsValidUpTo}.
+     */
+    private int[] starts = new int[16];
+    private int startsValidUpTo;
+    private int length;
+
+    private static final class Line {
+        final byte[] bytes;
+        final List<Token> tokens;
+        final Exception error;
+
+        Line(byte[] bytes, List<Token> tokens, Exception error) {
+            this.bytes = bytes;
+            this.tokens = tokens;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Creates lexer of empty text.
+     */
+    public IncrementalLexer() {
+        this(new byte[0]);
+    }
+
+    /**
+     * @param text UTF-8 encoded text.
+     */
+    public IncrementalLexer(byte[] text) {
+        for (byte[] line : split(text, 0, text.length)) {
+            lines.add(lex(line));
+        }
+        length = text.length;
+    }
+
+    /**
+     * Replaces the whole text. Lines equal at the start and at the end of both texts are kept, only lines
+     * between them are lexed.
+     *
+     * @param text New UTF-8 encoded text.
+     * @return Number of lines lexed.
+     */
+    public int update(byte[] text) {
+        List<byte[]> split = split(text, 0, text.length);
+        int prefix = 0;
+        while (prefix < split.size() && prefix < lines.size()
+                && Arrays.equals(split.get(prefix), lines.get(prefix).bytes)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < split.size() - prefix && suffix < lines.size() - prefix
+                && Arrays.equals(split.get(split.size() - 1 - suffix), lines.get(lines.size() - 1 - suffix).bytes)) {
+            suffix++;
+        }
+        replace(prefix, lines.size() - suffix, split.subList(prefix, split.size() - suffix));
+        length = text.length;
+        return split.size() - suffix - prefix;
+    }
+
+    /**
+     * Replaces range of the text.
+     *
+     * @param offset      Offset of the first replaced byte.
+     * @param count       Number of replaced bytes.
+     * @param replacement New UTF-8 encoded bytes.
+     * @return Number of lines lexed.
+     */
+    public int edit(int offset, int count, byte[] replacement) {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + count)
+                    + ") out of bounds for length " + length + ".");
+        }
+        // one more line on both sides, their separators may join with the edit
+        int first = Math.max(0, lineOf(offset) - 1);
+        int last = Math.min(lines.size() - 1, lineOf(offset + count) + 1);
+        int regionStart = getLineStart(first);
+        int regionLength = getLineStart(last) + lines.get(last).bytes.length - regionStart;
+
+        byte[] region = new byte[regionLength - count + replacement.length];
+        int before = offset - regionStart;
+        int pos = 0;
+        for (int i = first; i <= last && pos < before; i++) {
+            byte[] b = lines.get(i).bytes;
+            int n = Math.min(b.length, before - pos);
+            System.arraycopy(b, 0, region, pos, n);
+            pos += n;
+        }
+        System.arraycopy(replacement, 0, region, before, replacement.length);
+        int skip = before + count;
+        int out = before + replacement.length;
+        int at = 0;
+        for (int i = first; i <= last; i++) {
+            byte[] b = lines.get(i).bytes;
+            int from = Math.max(0, skip - at);
+            if (from < b.length) {
+                System.arraycopy(b, from, region, out, b.length - from);
+                out += b.length - from;
+            }
+            at += b.length;
+        }
+
+        List<byte[]> split = split(region, 0, region.length);
+        // the last line of the region only ends the text if the region reaches its end
+        if (last < lines.size() - 1 && split.get(split.size() - 1).length == 0) {
+            split.remove(split.size() - 1);
+        }
+        replace(first, last + 1, split);
+        length += replacement.length - count;
+        return split.size();
+    }
+
+    /**
+     * @return Number of lines, the last one does not end with a line separator and may be empty.
+     */
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    /**
+     * @return Offset of the first byte of the line.
+     */
+    public int getLineStart(int line) {
+        if (line < 0 || line >= lines.size()) {
+            throw new IndexOutOfBoundsException("Line " + line + " out of bounds for length " + lines.size() + ".");
+        }
+        if (starts.length < lines.size()) {
+            starts = Arrays.copyOf(starts, Math.max(lines.size(), starts.length * 2));
+        }
+        for (int i = startsValidUpTo; i <= line; i++) {
+            starts[i] = i == 0 ? 0 : starts[i - 1] + lines.get(i - 1).bytes.length;
+        }
+        startsValidUpTo = Math.max(startsValidUpTo, line + 1);
+        return starts[line];
+    }
+
+    /**
+     * @return Tokens of the line, ending with {@link Token.Type#T_NEWLINE} or {@link Token.Type#T_EOF} for the last
+     * line.
+     */
+    public List<Token> getTokens(int line) throws Exception {
+        Line l = lines.get(line);
+        if (l.error != null) {
+            throw l.error;
+        }
+        return l.tokens;
+    }
+
+    /**
+     * @return Tokens of the whole text, the same a lexer reading the text returns.
+     */
+    public List<Token> tokens() throws Exception {
+        List<Token> result = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            result.addAll(getTokens(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return Length of the text in bytes.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return Copy of the whole text.
+     */
+    public byte[] getText() {
+        byte[] text = new byte[length];
+        int pos = 0;
+        for (Line l : lines) {
+            System.arraycopy(l.bytes, 0, text, pos, l.bytes.length);
+            pos += l.bytes.length;
+        }
+        return text;
+    }
+
+    /**
+     * Replaces lines [from, to) by new lexed lines.
+     */
+    private void replace(int from, int to, List<byte[]> newLines) {
+        List<Line> lexed = new ArrayList<>(newLines.size());
+        for (byte[] bytes : newLines) {
+            lexed.add(lex(bytes));
+        }
+        List<Line> replaced = lines.subList(from, to);
+        replaced.clear();
+        replaced.addAll(lexed);
+        startsValidUpTo = Math.min(startsValidUpTo, from);
+    }
+
+    /**
+     * @return Line containing the byte at offset, the last line for the offset past the end.
+     */
+    private int lineOf(int offset) {
+        int low = 0;
+        int high = lines.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (getLineStart(mid) <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static Line lex(byte[] bytes) {
+        try {
+            List<Token> tokens = new ByteLexer(ByteBuffer.wrap(bytes)).readAll();
+            // only the last line of the text ends with EOF
+            int n = tokens.size();
+            if (n > 1 && tokens.get(n - 2).getType() == Token.Type.T_NEWLINE) {
+                tokens.remove(n - 1);
+            }
+            return new Line(bytes, List.copyOf(tokens), null);
+        } catch (Exception e) {
+            return new Line(bytes, List.of(), e);
+        }
+    }
+
+    /**
+     * Splits range of text into lines, every line keeps its separator. The last line is the rest after the last
+     * separator, possibly empty.
+     */
+    static List<byte[]> split(byte[] text, int from, int to) {
+        List<byte[]> result = new ArrayList<>();
+        int start = from;
+        for (int i = from; i < to; i++) {
+            byte b = text[i];
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && i + 1 < to && text[i + 1] == '\n') {
+                    i++;
+                }
+                result.add(Arrays.copyOfRange(text, start, i + 1));
+                start = i + 1;
+            }
+        }
+        result.add(Arrays.copyOfRange(text, start, to));
+        return result;
+    }
+}
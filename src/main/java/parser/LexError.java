@@ -0,0 +1,54 @@
+package parser;
+
+/**
+ * Kinds of lexical errors reported by {@link Diagnostics}.
+ */
+public enum LexError {
+    /**
+     * Character that cannot start any token.
+     */
+    UNSUPPORTED_CHARACTER("Unsupported character"),
+
+    /**
+     * Line separator or end of input inside a string literal.
+     */
+    UNTERMINATED_STRING("Unterminated string"),
+
+    /**
+     * Control character inside a string literal.
+     */
+    CONTROL_CHARACTER_IN_STRING("Control character in string"),
+
+    /**
+     * Single '/' that does not start a comment.
+     */
+    INVALID_COMMENT("Invalid comment"),
+
+    /**
+     * Unexpected character in field, e.g. {@code (1 2)} or {@code (y)}.
+     */
+    INVALID_FIELD("Invalid field"),
+
+    /**
+     * '-' not followed by non-zero digit.
+     */
+    INVALID_NUMBER("Invalid number"),
+
+    /**
+     * Integer or field id that does not fit into int.
+     */
+    INT_OVERFLOW("Integer out of range");
+
+    private final String description;
+
+    LexError(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return Human readable description of the error.
+     */
+    public String getDescription() {
+        return description;
+    }
+}
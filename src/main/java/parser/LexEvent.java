@@ -0,0 +1,34 @@
+package parser;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of one lexed input, emitted by lexers that have {@link LexMetrics} set. Duration of the event is the time
+ * from setting the metrics to reaching the end of input (or the first thrown error).
+ */
+@Name("parser.Lex")
+@Label("Lex Input")
+@Category("Parser")
+@Description("Lexing of one model input")
+public class LexEvent extends jdk.jfr.Event {
+    @Label("Source")
+    String source;
+
+    @Label("Bytes")
+    @Description("Bytes for ByteLexer, characters for Lexer")
+    @DataAmount
+    long bytes;
+
+    @Label("Tokens")
+    long tokens;
+
+    @Label("Errors")
+    long errors;
+
+    @Label("Line Separator Pushbacks")
+    long newLinePushbacks;
+}
@@ -0,0 +1,184 @@
+package parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of lexer activity, shared by any number of lexers running in parallel.
+ * Lexers collect metrics only after {@link Lexer#setMetrics(LexMetrics, String)} or
+ * {@link ByteLexer#setMetrics(LexMetrics, String)}, without metrics they only check a null field.
+ * <p>
+ * Every lexed input is also reported as {@link LexEvent} to Java Flight Recorder (if it is recording).
+ */
+public class LexMetrics {
+    private static final Token.Type[] TYPES = Token.Type.values();
+    private static final State[] STATES = State.values();
+    private static final LexError[] ERRORS = LexError.values();
+
+    private final LongAdder[] tokens = adders(TYPES.length);
+    private final LongAdder[] stateNanos = adders(STATES.length);
+    private final LongAdder[] errors = adders(ERRORS.length);
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder inputs = new LongAdder();
+    private final LongAdder newLinePushbacks = new LongAdder();
+
+    /**
+     * @return Number of tokens of given type.
+     */
+    public long getTokens(Token.Type type) {
+        return tokens[type.ordinal()].sum();
+    }
+
+    /**
+     * @return Number of tokens of all types.
+     */
+    public long getTokens() {
+        return sum(tokens);
+    }
+
+    /**
+     * @return Number of bytes lexed by {@link ByteLexer}s plus characters lexed by {@link Lexer}s.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return Number of inputs lexed to the end or to the first thrown error.
+     */
+    public long getInputs() {
+        return inputs.sum();
+    }
+
+    /**
+     * @return How many times {@link util.LineSeparator#isNewLine(int, java.io.PushbackReader, boolean)} pushed
+     * a character back (CR not followed by LF), counted by {@link Lexer}s only.
+     */
+    public long getNewLinePushbacks() {
+        return newLinePushbacks.sum();
+    }
+
+    /**
+     * @return Number of errors of given kind, both thrown and recorded into {@link Diagnostics}.
+     */
+    public long getErrors(LexError error) {
+        return errors[error.ordinal()].sum();
+    }
+
+    /**
+     * @return Number of errors of all kinds.
+     */
+    public long getErrors() {
+        return sum(errors);
+    }
+
+    /**
+     * Time spent in states of the lexer's state machine, measured by {@link Lexer}s only
+     * ({@link ByteLexer} would spend more time measuring than lexing).
+     *
+     * @return Nanoseconds by name of the state.
+     */
+    public Map<String, Long> getStateTimes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (State s : STATES) {
+            result.put(s.name(), stateNanos[s.ordinal()].sum());
+        }
+        return result;
+    }
+
+    /**
+     * Sets all counters to zero. Counts of lexers running at the same time may be partially lost.
+     */
+    public void reset() {
+        for (LongAdder[] group : new LongAdder[][]{tokens, stateNanos, errors}) {
+            for (LongAdder a : group) {
+                a.reset();
+            }
+        }
+        bytes.reset();
+        inputs.reset();
+        newLinePushbacks.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("inputs=").append(getInputs()).append(", bytes=").append(getBytes())
+                .append(", tokens=").append(getTokens()).append(", errors=").append(getErrors())
+                .append(", newLinePushbacks=").append(getNewLinePushbacks());
+        for (Token.Type type : TYPES) {
+            sb.append(", ").append(type).append('=').append(getTokens(type));
+        }
+        return sb.toString();
+    }
+
+    void token(int type) {
+        tokens[type].increment();
+    }
+
+    /**
+     * Adds counts of tokens indexed by ordinal of {@link Token.Type}.
+     */
+    void tokens(int[] counts) {
+        for (int type = 0; type < counts.length; type++) {
+            if (counts[type] != 0) {
+                tokens[type].add(counts[type]);
+            }
+        }
+    }
+
+    void error(LexError error) {
+        errors[error.ordinal()].increment();
+    }
+
+    void stateTime(State state, long nanos) {
+        stateNanos[state.ordinal()].add(nanos);
+    }
+
+    /**
+     * Starts timing of an input.
+     *
+     * @param source Description of the input for the event, may be null.
+     * @return Event to pass to {@link #end(LexEvent, long, long, long, long)}.
+     */
+    LexEvent begin(String source) {
+        LexEvent event = new LexEvent();
+        event.source = source;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Counts finished input and commits its event.
+     */
+    void end(LexEvent event, long bytes, long tokens, long errors, long newLinePushbacks) {
+        this.inputs.increment();
+        this.bytes.add(bytes);
+        this.newLinePushbacks.add(newLinePushbacks);
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytes = bytes;
+            event.tokens = tokens;
+            event.errors = errors;
+            event.newLinePushbacks = newLinePushbacks;
+            event.commit();
+        }
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] result = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = new LongAdder();
+        }
+        return result;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long sum = 0;
+        for (LongAdder a : adders) {
+            sum += a.sum();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,301 @@
+package parser;
+
+import util.LineSeparator;
+
+import java.io.PushbackReader;
+
+/**
+ * Lexical analyzer bound to a single input.
+ * Unlike {@link Lex}, every instance has its own state and scratch buffer, so different inputs can be tokenized
+ * on different threads at the same time. A single instance is not thread safe.
+ */
+public class Lexer implements TokenSource {
+    private PushbackReader br;
+    private final SymbolTable symbols;
+    private final StringBuilder buffer;
+    private State state;
+
+    /**
+     * Metrics to collect, null if disabled. The rest is used only with metrics.
+     */
+    private LexMetrics metrics;
+    private LexEvent event;
+    private State timed;
+    private long timedSince;
+    private long tokens;
+    private long errors;
+
+    /**
+     * @param br reader to read tokens from.
+     */
+    public Lexer(PushbackReader br) {
+        this(br, null);
+    }
+
+    /**
+     * @param br      reader to read tokens from.
+     * @param symbols Table to intern values of {@link Token.Type#T_NAME} and {@link Token.Type#T_STR} into,
+     *                null to not intern them.
+     */
+    public Lexer(PushbackReader br, SymbolTable symbols) {
+        this.br = br;
+        this.symbols = symbols;
+        this.buffer = new StringBuilder();
+        this.state = State.LEX_S;
+    }
+
+    /**
+     * Starts collecting metrics, must be called before the first token is read.
+     *
+     * @param metrics Metrics to add to.
+     * @param source  Description of the input (e.g. file name) for {@link LexEvent}, may be null.
+     */
+    public void setMetrics(LexMetrics metrics, String source) {
+        this.br = new MeteredReader(br);
+        this.metrics = metrics;
+        this.event = metrics.begin(source);
+    }
+
+    @Override
+    public Token readToken() throws Exception {
+        if (metrics == null) {
+            return lex();
+        }
+        timed = State.LEX_S;
+        timedSince = System.nanoTime();
+        try {
+            Token t = lex();
+            metrics.token(t.getType().ordinal());
+            tokens++;
+            if (t.getType() == Token.Type.T_EOF) {
+                finish();
+            }
+            return t;
+        } catch (Exception e) {
+            if (e instanceof NumberFormatException) {
+                metrics.error(LexError.INT_OVERFLOW);
+                errors++;
+            }
+            finish();
+            throw e;
+        } finally {
+            metrics.stateTime(timed, System.nanoTime() - timedSince);
+        }
+    }
+
+    private Token lex() throws Exception {
+        Token t;
+        buffer.setLength(0);
+        state = State.LEX_S;
+        while (true) {
+            if (metrics != null && state != timed) {
+                switchTimer();
+            }
+            int c = br.read();
+            switch (state) {
+                case LEX_S -> {
+                    t = stateSHelper(c);
+                    if (t != null) {
+                        state = State.LEX_S;
+                        return t;
+                    }
+                }
+                case LEX_STR1 -> {
+                    if (c == '"') {
+                        return text(Token.Type.T_STR, buffer.toString());
+                    } else if (c != -1 && !Character.isISOControl(c) && !LineSeparator.isNewLine(c, br, false)) {
+                        buffer.appendCodePoint(c);
+                    } else {
+                        throw fail(c);
+                    }
+                }
+                case LEX_COMMENT1 -> {
+                    if (c == '/') {
+                        state = State.LEX_COMMENTF;
+                    } else {
+                        throw fail(c);
+                    }
+                }
+                case LEX_COMMENTF -> {
+                    if (LineSeparator.isNewLine(c, br, false)) {
+                        return new Token(Token.Type.T_NEWLINE, null);
+                    } else if (c == -1) {
+                        // comment on the last line of the file
+                        return new Token(Token.Type.T_EOF, null);
+                    }
+                }
+                case LEX_INT -> {
+                    if (Character.isDigit(c)) {
+                        buffer.appendCodePoint(c);
+                    } else {
+                        unread(c);
+                        return new Token(Token.Type.T_INT, Integer.valueOf(buffer.toString()));
+                    }
+                }
+                case LEX_NAME -> {
+                    if (Character.isLetterOrDigit(c) || c == '_') {
+                        buffer.appendCodePoint(c);
+                    } else {
+                        unread(c);
+                        String value = buffer.toString();
+                        if (value.equals("true") || value.equals("false")) {
+                            return new Token(Token.Type.T_BOOL, value.equals("true"));
+                        } else {
+                            return text(Token.Type.T_NAME, value);
+                        }
+                    }
+                }
+                case LEX_FIELD1 -> {
+                    if (Character.isDigit(c)) {
+                        state = State.LEX_FIELD2;
+                        buffer.appendCodePoint(c);
+                    } else if (c == 'x') {
+                        state = State.LEX_FIELDX;
+                    } else if (!(Character.isSpaceChar(c) && !LineSeparator.isNewLine(c, br, false))) {
+                        throw fail(c);
+                    }
+                }
+                case LEX_FIELD2 -> {
+                    if (Character.isDigit(c)) {
+                        buffer.appendCodePoint(c);
+                    } else if (Character.isSpaceChar(c) && !LineSeparator.isNewLine(c, br, false)) {
+                        state = State.LEX_FIELD3;
+                    } else if (c == ')') {
+                        return new Token(Token.Type.T_FIELD, Integer.valueOf(buffer.toString()));
+                    } else {
+                        throw fail(c);
+                    }
+                }
+                case LEX_FIELD3 -> {
+                    if (c == ')') {
+                        return new Token(Token.Type.T_FIELD, Integer.valueOf(buffer.toString()));
+                    } else if (!(Character.isSpaceChar(c) && !LineSeparator.isNewLine(c, br, false))) {
+                        throw fail(c);
+                    }
+                }
+                case LEX_FIELDX -> {
+                    if (c == ')') {
+                        return new Token(Token.Type.T_FIELDEMPTY, null);
+                    } else if (!(Character.isSpaceChar(c) && !LineSeparator.isNewLine(c, br, false))) {
+                        throw fail(c);
+                    }
+                }
+                case LEX_MINUS -> {
+                    if (Character.isDigit(c) && c != '0') {
+                        state = State.LEX_INT;
+                        buffer.appendCodePoint(c);
+                    } else {
+                        throw fail(c);
+                    }
+                }
+                default -> // should never get here
+                        throw new Exception("There is a state of Lexer that is not in readToken switch.");
+            }
+        }
+    }
+
+    private Token stateSHelper(int c) throws Exception {
+        Token t = null;
+        switch (c) {
+            case '{' -> t = new Token(Token.Type.T_LEFTCB, null);
+            case '=' -> t = new Token(Token.Type.T_EQ, null);
+            case '}' -> t = new Token(Token.Type.T_RIGHTCB, null);
+            case ',' -> t = new Token(Token.Type.T_COMMA, null);
+            case '"' -> state = State.LEX_STR1;
+            case '/' -> state = State.LEX_COMMENT1;
+            case '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                buffer.appendCodePoint(c);
+                state = State.LEX_INT;
+            }
+            case '(' -> state = State.LEX_FIELD1;
+            case '-' -> {
+                buffer.appendCodePoint(c);
+                state = State.LEX_MINUS;
+            }
+            case -1 -> t = new Token(Token.Type.T_EOF, null);
+            default -> {
+                if (LineSeparator.isNewLine(c, br, false)) {
+                    t = new Token(Token.Type.T_NEWLINE, null);
+                } else if (Character.isLetter(c) || c == '_') {
+                    buffer.appendCodePoint(c);
+                    state = State.LEX_NAME;
+                } else if (!(Character.isSpaceChar(c))) {
+                    throw fail(c);
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Adds time spent in the timed state and starts timing the current one.
+     */
+    private void switchTimer() {
+        long now = System.nanoTime();
+        metrics.stateTime(timed, now - timedSince);
+        timed = state;
+        timedSince = now;
+    }
+
+    /**
+     * Reports the end of input to metrics, only once.
+     */
+    private void finish() {
+        if (event != null) {
+            MeteredReader reader = (MeteredReader) br;
+            metrics.end(event, reader.getCharacters(), tokens, errors, reader.getPushbacks());
+            event = null;
+        }
+    }
+
+    /**
+     * Counts error of character that is not allowed in current state and creates its exception.
+     */
+    private Exception fail(int c) {
+        if (metrics != null) {
+            // the same kind of error the table of ByteLexer reports
+            int transition = Dfa.lookup(state.ordinal(), Dfa.classifyUnicode(c));
+            metrics.error(transition >>> 8 == Dfa.A_ERROR
+                    ? LexError.values()[transition & 0xFF] : LexError.UNSUPPORTED_CHARACTER);
+            errors++;
+        }
+        return unsupported(c);
+    }
+
+    /**
+     * Creates token with string value, interned if there is a symbol table.
+     */
+    private Token text(Token.Type type, String value) {
+        if (symbols == null) {
+            return new Token(type, value);
+        }
+        int symbol = symbols.intern(value);
+        return new Token(type, symbols.getName(symbol), symbol);
+    }
+
+    /**
+     * Pushes character back to the reader. End of stream is never pushed back, the reader keeps returning it anyway.
+     */
+    private void unread(int c) throws Exception {
+        if (c == -1) {
+            return;
+        }
+        if (br instanceof MeteredReader reader) {
+            reader.unreadOwn(c);
+        } else {
+            br.unread(c);
+        }
+    }
+
+    /**
+     * Creates exception for character that is not allowed in current state.
+     *
+     * @param c Character, -1 for end of input.
+     */
+    static Exception unsupported(int c) {
+        if (c == -1) {
+            return new Exception("Unexpected end of input.");
+        }
+        return new Exception("Unsupported character:'" + Character.toString(c) + "'");
+    }
+}
@@ -0,0 +1,47 @@
+package parser;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+
+/**
+ * Reader used by {@link Lexer} with {@link LexMetrics}. Counts characters read and characters pushed back by
+ * {@link util.LineSeparator}, pushbacks of the lexer itself go through {@link #unreadOwn(int)} and are not counted.
+ */
+class MeteredReader extends PushbackReader {
+    private long characters;
+    private long pushbacks;
+
+    MeteredReader(Reader in) {
+        super(in, 1);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c != -1) {
+            characters++;
+        }
+        return c;
+    }
+
+    @Override
+    public void unread(int c) throws IOException {
+        super.unread(c);
+        characters--;
+        pushbacks++;
+    }
+
+    void unreadOwn(int c) throws IOException {
+        super.unread(c);
+        characters--;
+    }
+
+    long getCharacters() {
+        return characters;
+    }
+
+    long getPushbacks() {
+        return pushbacks;
+    }
+}
@@ -0,0 +1,259 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread safe cache of models loaded from files, shared by any number of jobs in the same JVM.
+ * <p>
+ * Entries are keyed by the absolute path of the file and remember its modification time and size, a file changed
+ * since it was loaded is loaded again. Every entry has a weight (e.g. number of tokens) and least recently used
+ * entries are evicted while the total weight exceeds the limit. When more threads ask for the same file at the same
+ * time, only one of them loads it and the others wait for its result. Failed loads are not cached.
+ *
+ * @param <V> Type of loaded models.
+ */
+public class ModelCache<V> {
+    private final long maxWeight;
+    private final Loader<? extends V> loader;
+    private final ToLongFunction<? super V> weigher;
+    /**
+     * Entries in access order, the eldest is evicted first.
+     */
+    private final LinkedHashMap<Path, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Loads model from a file.
+     */
+    public interface Loader<V> {
+        V load(Path file) throws Exception;
+    }
+
+    private static final class Entry<V> {
+        final FileTime modified;
+        final long size;
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        /**
+         * Weight of the loaded model, -1 until it is loaded.
+         */
+        long weight = -1;
+
+        Entry(FileTime modified, long size) {
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+
+    /**
+     * @param maxWeight Maximal total weight of cached models, must not be negative.
+     * @param loader    Loads model of a file, called on the thread that first asked for the file.
+     * @param weigher   Weight of a loaded model.
+     */
+    public ModelCache(long maxWeight, Loader<? extends V> loader, ToLongFunction<? super V> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximal weight must not be negative, got " + maxWeight + ".");
+        }
+        this.maxWeight = maxWeight;
+        this.loader = loader;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Creates cache of tokens of model files, loaded by {@link ModelLoader#loadFile(Path)}.
+     *
+     * @param maxTokens Maximal number of cached tokens of all files.
+     * @return Cache whose weight of a file is the number of its tokens.
+     */
+    public static ModelCache<List<Token>> ofTokens(long maxTokens) {
+        return new ModelCache<>(maxTokens, file -> List.copyOf(ModelLoader.loadFile(file)), List::size);
+    }
+
+    /**
+     * Returns cached model of the file, loads it if it is not cached or the file changed since.
+     *
+     * @param file Model file.
+     * @return Model of the file, the same instance for all callers until it is evicted.
+     */
+    public V get(Path file) throws Exception {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new Exception("Cannot read '" + file + "'.", e);
+        }
+        Entry<V> entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.modified.equals(attributes.lastModifiedTime())
+                    && entry.size == attributes.size()) {
+                hits++;
+            } else {
+                if (entry != null) {
+                    remove(key, entry);
+                }
+                entry = new Entry<>(attributes.lastModifiedTime(), attributes.size());
+                entries.put(key, entry);
+                misses++;
+                load = true;
+            }
+        }
+        if (load) {
+            load(key, entry);
+        }
+        try {
+            return entry.future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Removes the file from the cache, it is loaded again next time.
+     */
+    public synchronized void invalidate(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    /**
+     * Removes all files from the cache, statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return Number of cached files, including files being loaded.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Total weight of cached models.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return Maximal total weight of cached models.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return Number of requests served from the cache, including requests that waited for another thread's load.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of requests that loaded the file.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of models evicted because of the weight limit.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Hits divided by all requests, 0 if there was none.
+     */
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Resets hit, miss and eviction counters.
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ModelCache{size=" + entries.size() + ", weight=" + weight + "/" + maxWeight + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+
+    /**
+     * Loads the entry on the calling thread and completes its future.
+     */
+    private void load(Path key, Entry<V> entry) {
+        V model;
+        long w;
+        try {
+            model = loader.load(key);
+            w = weigher.applyAsLong(model);
+        } catch (Throwable e) {
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    entries.remove(key);
+                }
+            }
+            entry.future.completeExceptionally(e);
+            return;
+        }
+        synchronized (this) {
+            // the entry may have been replaced or invalidated while it was loading
+            if (entries.get(key) == entry) {
+                entry.weight = w;
+                weight += w;
+                evict();
+            }
+        }
+        entry.future.complete(model);
+    }
+
+    /**
+     * Evicts least recently used loaded models until the weight limit is met, models being loaded are skipped.
+     */
+    private void evict() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Entry<V> e = it.next();
+            if (e.weight >= 0) {
+                it.remove();
+                weight -= e.weight;
+                evictions++;
+            }
+        }
+    }
+
+    private void remove(Path key, Entry<V> entry) {
+        entries.remove(key);
+        if (entry.weight > 0) {
+            weight -= entry.weight;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tokenizes many model files concurrently. Every file is memory mapped and gets its own {@link ByteLexer}, files are
+ * spread over a fixed pool of threads.
+ */
+public class ModelLoader {
+    private final int parallelism;
+    private LexMetrics metrics;
+    private ModelCache<List<Token>> cache;
+
+    /**
+     * Creates loader that uses one thread per available processor.
+     */
+    public ModelLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of threads used for loading, must be positive.
+     */
+    public ModelLoader(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Collects metrics of every file loaded or validated from now on.
+     *
+     * @param metrics Metrics to add to, null to stop collecting.
+     */
+    public void setMetrics(LexMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Loads files through the cache from now on, files found in it are not lexed again (and not counted by metrics).
+     *
+     * @param cache Cache of tokens shared with other loaders, null to always lex files.
+     */
+    public void setCache(ModelCache<List<Token>> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Tokenizes every regular file in given directory (not recursively).
+     *
+     * @param dir Directory with model files.
+     * @return Tokens of every file, ordered by file path.
+     */
+    public Map<Path, List<Token>> loadDirectory(Path dir) throws Exception {
+        return loadDirectory(dir, "*");
+    }
+
+    /**
+     * Tokenizes every regular file in given directory (not recursively) whose name matches the glob.
+     *
+     * @param dir  Directory with model files.
+     * @param glob Glob pattern for file names, for example {@code *.txt}.
+     * @return Tokens of every file, ordered by file path.
+     */
+    public Map<Path, List<Token>> loadDirectory(Path dir, String glob) throws Exception {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p)) {
+                    files.add(p);
+                }
+            }
+        }
+        files.sort(null);
+        return load(files);
+    }
+
+    /**
+     * Tokenizes given files.
+     *
+     * @param files Model files.
+     * @return Tokens of every file, in the iteration order of files.
+     */
+    public Map<Path, List<Token>> load(Collection<Path> files) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, files.size())));
+        try {
+            Map<Path, Future<List<Token>>> futures = new LinkedHashMap<>();
+            for (Path p : files) {
+                futures.put(p, pool.submit(() -> cache != null ? cache.get(p) : loadFile(p, metrics)));
+            }
+            Map<Path, List<Token>> result = new LinkedHashMap<>();
+            for (Map.Entry<Path, Future<List<Token>>> e : futures.entrySet()) {
+                try {
+                    result.put(e.getKey(), e.getValue().get());
+                } catch (ExecutionException ex) {
+                    throw new Exception("Failed to load '" + e.getKey() + "': " + ex.getCause().getMessage(),
+                            ex.getCause());
+                }
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks given files for lexical errors without stopping at the first one. Lexical errors do not throw, only
+     * unreadable files fail the whole validation.
+     *
+     * @param files Model files.
+     * @return Messages ({@code line:column: description}) of every file with errors, in the iteration order of files.
+     */
+    public Map<Path, List<String>> validate(Collection<Path> files) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, files.size())));
+        // one reusable buffer per thread of the pool
+        ThreadLocal<Diagnostics> diagnostics = ThreadLocal.withInitial(Diagnostics::new);
+        try {
+            Map<Path, Future<List<String>>> futures = new LinkedHashMap<>();
+            for (Path p : files) {
+                futures.put(p, pool.submit(() -> validateFile(p, diagnostics.get(), metrics)));
+            }
+            Map<Path, List<String>> result = new LinkedHashMap<>();
+            for (Map.Entry<Path, Future<List<String>>> e : futures.entrySet()) {
+                try {
+                    List<String> messages = e.getValue().get();
+                    if (!messages.isEmpty()) {
+                        result.put(e.getKey(), messages);
+                    }
+                } catch (ExecutionException ex) {
+                    throw new Exception("Failed to validate '" + e.getKey() + "': " + ex.getCause().getMessage(),
+                            ex.getCause());
+                }
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<String> validateFile(Path file, Diagnostics diagnostics, LexMetrics metrics)
+            throws Exception {
+        ByteLexer lexer = open(file, metrics);
+        diagnostics.clear();
+        if (lexer.validate(diagnostics) == 0) {
+            return List.of();
+        }
+        List<String> messages = new ArrayList<>(diagnostics.size());
+        for (int i = 0; i < diagnostics.size(); i++) {
+            messages.add(diagnostics.getMessage(i));
+        }
+        return messages;
+    }
+
+    /**
+     * Tokenizes a single file on the calling thread.
+     *
+     * @param file Model file.
+     * @return Tokens of the file, last one is always {@link Token.Type#T_EOF}.
+     */
+    public static List<Token> loadFile(Path file) throws Exception {
+        return loadFile(file, null);
+    }
+
+    private static List<Token> loadFile(Path file, LexMetrics metrics) throws Exception {
+        return open(file, metrics).readAll();
+    }
+
+    private static ByteLexer open(Path file, LexMetrics metrics) throws Exception {
+        ByteLexer lexer;
+        try {
+            lexer = ByteLexer.map(file);
+        } catch (IOException e) {
+            throw new Exception("Cannot read '" + file + "'.", e);
+        }
+        if (metrics != null) {
+            lexer.setMetrics(metrics, file.toString());
+        }
+        return lexer;
+    }
+}
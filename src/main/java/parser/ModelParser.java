@@ -0,0 +1,236 @@
+package parser;
+
+import model.Board;
+import model.Player;
+import sim.SimulationConfig;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recursive descent parser of model blocks read from a {@link TokenStream}.
+ * <p>
+ * Board block is {@code board { rows }}, where rows are separated by {@link Token.Type#T_NEWLINE} and consist of
+ * {@link Token.Type#T_FIELD} and {@link Token.Type#T_FIELDEMPTY} tokens. Blank lines are ignored.
+ * <p>
+ * Player block is {@code player { name = value, ... }}, properties are separated by commas or new lines and values
+ * are integers, booleans or strings. Properties {@code name} (string) and {@code income} (integer) are required.
+ * <p>
+ * Simulation block is {@code simulation { rounds = 20, playouts = 10000, seed = 1 }}, all its properties are
+ * optional integers.
+ */
+public class ModelParser {
+    private final TokenStream tokens;
+
+    /**
+     * @param tokens Tokens to parse.
+     */
+    public ModelParser(TokenStream tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @param source Source of tokens to parse.
+     */
+    public ModelParser(TokenSource source) {
+        this(new TokenStream(source));
+    }
+
+    /**
+     * Parses board block, blank lines before it are skipped.
+     *
+     * @return Parsed board.
+     */
+    public Board parseBoard() throws Exception {
+        skipNewLines();
+        expectName("board");
+        expect(Token.Type.T_LEFTCB);
+        int[] ids = new int[64];
+        int cells = 0;
+        int[] rowOffsets = new int[16];
+        int rows = 0;
+        int rowStart = 0;
+        while (true) {
+            Token t = tokens.next();
+            switch (t.getType()) {
+                case T_FIELD, T_FIELDEMPTY -> {
+                    if (cells == ids.length) {
+                        ids = Arrays.copyOf(ids, cells * 2);
+                    }
+                    ids[cells++] = t.getType() == Token.Type.T_FIELD ? t.getId() : Board.EMPTY;
+                }
+                case T_NEWLINE, T_RIGHTCB -> {
+                    // blank lines do not make rows
+                    if (cells > rowStart) {
+                        if (rows + 1 >= rowOffsets.length) {
+                            rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length * 2);
+                        }
+                        rowOffsets[rows++] = rowStart;
+                        rowStart = cells;
+                    }
+                    if (t.getType() == Token.Type.T_RIGHTCB) {
+                        rowOffsets[rows] = cells;
+                        try {
+                            return new Board(Arrays.copyOf(ids, cells), Arrays.copyOf(rowOffsets, rows + 1));
+                        } catch (IllegalArgumentException e) {
+                            throw new Exception("Invalid board: " + e.getMessage(), e);
+                        }
+                    }
+                }
+                default -> throw unexpected(t, "field");
+            }
+        }
+    }
+
+    /**
+     * Parses player block, blank lines before it are skipped.
+     *
+     * @return Parsed player.
+     */
+    public Player parsePlayer() throws Exception {
+        skipNewLines();
+        expectName("player");
+        Map<String, Object> properties = parseProperties();
+        Object name = properties.remove("name");
+        Object income = properties.remove("income");
+        if (!(name instanceof String)) {
+            throw new Exception("Player must have string property 'name'.");
+        }
+        if (!(income instanceof Integer)) {
+            throw new Exception("Player '" + name + "' must have integer property 'income'.");
+        }
+        return new Player((String) name, (Integer) income, properties);
+    }
+
+    /**
+     * Parses simulation block, blank lines before it are skipped.
+     *
+     * @return Parsed config, missing parameters are default.
+     */
+    public SimulationConfig parseSimulation() throws Exception {
+        skipNewLines();
+        expectName("simulation");
+        Map<String, Object> properties = parseProperties();
+        int rounds = intProperty(properties, "rounds", SimulationConfig.DEFAULT_ROUNDS);
+        int playouts = intProperty(properties, "playouts", (int) SimulationConfig.DEFAULT_PLAYOUTS);
+        int seed = intProperty(properties, "seed", (int) SimulationConfig.DEFAULT_SEED);
+        if (!properties.isEmpty()) {
+            throw new Exception("Unknown simulation property '" + properties.keySet().iterator().next() + "'.");
+        }
+        return new SimulationConfig(rounds, playouts, seed);
+    }
+
+    /**
+     * Skips blank lines and returns name of the next block without consuming it.
+     *
+     * @return Name of the next block, null at the end of input or if the next token is not a name.
+     */
+    public String peekBlockName() {
+        skipNewLines();
+        Token t = tokens.peek();
+        return t.getType() == Token.Type.T_NAME ? t.getName() : null;
+    }
+
+    /**
+     * Skips blank lines and checks if the input ends.
+     *
+     * @return True if there is no other block.
+     */
+    public boolean atEnd() {
+        skipNewLines();
+        return tokens.peekType(0) == Token.Type.T_EOF;
+    }
+
+    /**
+     * Parses {@code { name = value, ... }} block of properties.
+     *
+     * @return Values by name in order of definition.
+     */
+    Map<String, Object> parseProperties() throws Exception {
+        expect(Token.Type.T_LEFTCB);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        while (true) {
+            skipNewLines();
+            if (tokens.peekType(0) == Token.Type.T_RIGHTCB) {
+                tokens.next();
+                return properties;
+            }
+            String name = expect(Token.Type.T_NAME).getName();
+            expect(Token.Type.T_EQ);
+            Token value = tokens.next();
+            Object v = switch (value.getType()) {
+                case T_INT -> value.getIntValue();
+                case T_BOOL -> value.getBoolValue();
+                case T_STR -> value.getStrValue();
+                default -> throw unexpected(value, "value");
+            };
+            if (properties.put(name, v) != null) {
+                throw new Exception("Property '" + name + "' is defined more than once.");
+            }
+            // separator, the closing bracket is handled by the next iteration
+            switch (tokens.peekType(0)) {
+                case T_COMMA, T_NEWLINE -> tokens.next();
+                case T_RIGHTCB -> {
+                }
+                default -> throw unexpected(tokens.next(), "',' or '}'");
+            }
+        }
+    }
+
+    /**
+     * Removes integer property.
+     *
+     * @return Value of the property, the default value if it is not defined.
+     */
+    private static int intProperty(Map<String, Object> properties, String name, int defaultValue) throws Exception {
+        Object value = properties.remove(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Integer i)) {
+            throw new Exception("Property '" + name + "' must be integer.");
+        }
+        return i;
+    }
+
+    /**
+     * Consumes all {@link Token.Type#T_NEWLINE} tokens at the current position.
+     */
+    void skipNewLines() {
+        while (tokens.peekType(0) == Token.Type.T_NEWLINE) {
+            tokens.next();
+        }
+    }
+
+    /**
+     * Consumes token of given type.
+     */
+    Token expect(Token.Type type) throws Exception {
+        Token t = tokens.next();
+        if (t.getType() != type) {
+            throw unexpected(t, type.toString());
+        }
+        return t;
+    }
+
+    /**
+     * Consumes {@link Token.Type#T_NAME} with given value.
+     */
+    void expectName(String name) throws Exception {
+        Token t = tokens.next();
+        if (t.getType() != Token.Type.T_NAME || !t.getName().equals(name)) {
+            throw unexpected(t, "'" + name + "'");
+        }
+    }
+
+    private static Exception unexpected(Token t, String expected) {
+        String found = switch (t.getType()) {
+            case T_NAME -> "'" + t.getName() + "'";
+            case T_STR -> "\"" + t.getStrValue() + "\"";
+            case T_INT, T_FIELD -> t.getType() + " " + t.getIntValue();
+            default -> t.getType().toString();
+        };
+        return new Exception("Expected " + expected + ", found " + found + ".");
+    }
+}
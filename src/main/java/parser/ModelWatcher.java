@@ -0,0 +1,151 @@
+package parser;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a directory of model files and keeps an {@link IncrementalLexer} of every file up to date.
+ * When a file changes, only lines that differ from its previous content are lexed again.
+ * <p>
+ * Events are processed by {@link #poll(long, TimeUnit)}, so the caller decides which thread reloads models.
+ */
+public class ModelWatcher implements AutoCloseable {
+    private final Path dir;
+    private final PathMatcher matcher;
+    private final Listener listener;
+    private final WatchService watchService;
+    private final Map<Path, IncrementalLexer> lexers = new LinkedHashMap<>();
+
+    /**
+     * Receives reloaded models.
+     */
+    public interface Listener {
+        /**
+         * @param file   Changed file.
+         * @param lexer  Lexer of the new content of the file, null if the file was deleted.
+         * @param lexed  Number of lines lexed again.
+         */
+        void reloaded(Path file, IncrementalLexer lexer, int lexed);
+    }
+
+    /**
+     * Starts watching directory (not recursively) and lexes every file in it whose name matches the glob.
+     *
+     * @param dir      Directory with model files.
+     * @param glob     Glob pattern for file names, for example {@code *.txt}.
+     * @param listener Listener of reloaded models.
+     */
+    public ModelWatcher(Path dir, String glob, Listener listener) throws IOException {
+        this.dir = dir;
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        this.listener = listener;
+        this.watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p)) {
+                    lexers.put(p, new IncrementalLexer(Files.readAllBytes(p)));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Lexer of the file, null if the file is not watched.
+     */
+    public IncrementalLexer getLexer(Path file) {
+        return lexers.get(file);
+    }
+
+    /**
+     * Waits for changes and reloads changed files.
+     *
+     * @param timeout How long to wait for the first change.
+     * @param unit    Unit of the timeout.
+     * @return Number of files reloaded.
+     */
+    public int poll(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        WatchKey key;
+        try {
+            key = watchService.poll(timeout, unit);
+        } catch (ClosedWatchServiceException e) {
+            return 0;
+        }
+        int reloaded = 0;
+        while (key != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    reloaded += reloadAll();
+                } else if (event.context() instanceof Path name && matcher.matches(name)) {
+                    reloaded += reload(dir.resolve(name));
+                }
+            }
+            key.reset();
+            key = watchService.poll();
+        }
+        return reloaded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private int reloadAll() throws IOException {
+        int reloaded = 0;
+        for (Path p : lexers.keySet().toArray(new Path[0])) {
+            reloaded += reload(p);
+        }
+        return reloaded;
+    }
+
+    /**
+     * Lexes changed lines of the file again.
+     *
+     * @return 1 if the file was reloaded, 0 if its content did not change.
+     */
+    private int reload(Path file) throws IOException {
+        byte[] content;
+        try {
+            content = Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+        } catch (NoSuchFileException e) {
+            content = null;
+        }
+        IncrementalLexer lexer = lexers.get(file);
+        if (content == null) {
+            if (lexers.remove(file) == null) {
+                return 0;
+            }
+            listener.reloaded(file, null, 0);
+            return 1;
+        }
+        int lexed;
+        if (lexer == null) {
+            lexer = new IncrementalLexer(content);
+            lexers.put(file, lexer);
+            lexed = lexer.getLineCount();
+        } else if (Arrays.equals(lexer.getText(), content)) {
+            // modification event without change of content
+            return 0;
+        } else {
+            lexed = lexer.update(content);
+        }
+        listener.reloaded(file, lexer, lexed);
+        return 1;
+    }
+}
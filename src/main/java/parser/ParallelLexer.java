@@ -0,0 +1,197 @@
+package parser;
+
+import util.ByteScanner;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Lexes a single large input in chunks on a {@link ForkJoinPool}.
+ * <p>
+ * Chunks end right after a line separator. That is always a safe place to split: a line separator is not allowed
+ * inside a string and ends every comment, so {@link ByteLexer} is back in its start state after it. Every chunk is
+ * lexed by its own {@link ByteLexer} and the tokens are stitched back in order, so the result is the same as
+ * lexing the whole input sequentially, including the first error.
+ */
+public class ParallelLexer {
+    /**
+     * Default size of chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates lexer running on the common pool with chunks of {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public ParallelLexer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool      Pool to lex chunks on.
+     * @param chunkSize Minimal size of chunk in bytes, must be positive.
+     */
+    public ParallelLexer(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize + ".");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Lexes memory mapped file.
+     *
+     * @param file UTF-8 encoded file, at most 2 GB large.
+     * @param out  Buffer to append tokens to, the last one appended is {@link Token.Type#T_EOF}.
+     */
+    public void tokenize(Path file, TokenBuffer out) throws Exception {
+        tokenize(ByteLexer.mapFile(file), out, null);
+    }
+
+    /**
+     * Lexes bytes between position and limit of the buffer.
+     *
+     * @param src UTF-8 encoded input.
+     * @param out Buffer to append tokens to, the last one appended is {@link Token.Type#T_EOF}.
+     */
+    public void tokenize(ByteBuffer src, TokenBuffer out) throws Exception {
+        tokenize(src, out, null);
+    }
+
+    /**
+     * Lexes bytes between position and limit of the buffer, interning names and strings.
+     * Every chunk interns into its own table, so chunks do not contend on one. The tables are interned into
+     * {@code symbols} in order of the chunks when they are joined, so ids are the same as from sequential lexing.
+     *
+     * @param src     UTF-8 encoded input.
+     * @param out     Buffer to append tokens to, the last one appended is {@link Token.Type#T_EOF}.
+     * @param symbols Table to intern values into, null to not intern them.
+     */
+    public void tokenize(ByteBuffer src, TokenBuffer out, SymbolTable symbols) throws Exception {
+        int[] bounds = split(src, chunkSize);
+        int chunks = bounds.length - 1;
+        if (chunks == 1) {
+            new ByteLexer(src, symbols).tokenize(out);
+            return;
+        }
+        TokenBuffer[] results = new TokenBuffer[chunks];
+        SymbolTable[] tables = symbols == null ? null : new SymbolTable[chunks];
+        Exception[] errors = new Exception[chunks];
+        pool.invoke(new ChunkTask(src, tables, bounds, results, errors, 0, chunks));
+
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            if (errors[i] != null) {
+                throw errors[i];
+            }
+            if (symbols != null) {
+                results[i].remapSymbols(symbols.internAll(tables[i]));
+            }
+            total += results[i].size();
+        }
+        out.ensureCapacity(out.size() + total);
+        for (int i = 0; i < chunks; i++) {
+            // only the last chunk ends with the real end of input
+            int count = i == chunks - 1 ? results[i].size() : results[i].size() - 1;
+            out.addAll(results[i], count);
+        }
+        out.setSource(src);
+    }
+
+    /**
+     * Splits input into chunks, each ending right after a line separator (or at the end of input).
+     *
+     * @param src       UTF-8 encoded input.
+     * @param chunkSize Minimal size of chunk in bytes.
+     * @return Bounds of chunks, chunk i is [bounds[i], bounds[i + 1]).
+     */
+    static int[] split(ByteBuffer src, int chunkSize) {
+        List<Integer> bounds = new ArrayList<>();
+        ByteBuffer words = ByteScanner.littleEndian(src);
+        int end = src.limit();
+        int at = src.position();
+        bounds.add(at);
+        while (end - at > chunkSize) {
+            int i = ByteScanner.indexOfNewLine(words, at + chunkSize - 1, end);
+            if (i < 0) {
+                break;
+            }
+            i++;
+            // CR LF is a single separator
+            if (i < end && src.get(i - 1) == '\r' && src.get(i) == '\n') {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            bounds.add(i);
+            at = i;
+        }
+        bounds.add(end);
+        int[] result = new int[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Lexes range of chunks, splitting it in halves until a single chunk is left.
+     */
+    @SuppressWarnings("serial") // never serialized
+    private static class ChunkTask extends RecursiveAction {
+        private final ByteBuffer src;
+        /**
+         * Table of every chunk, filled by the chunk, null to not intern values.
+         */
+        private final SymbolTable[] tables;
+        private final int[] bounds;
+        private final TokenBuffer[] results;
+        private final Exception[] errors;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ByteBuffer src, SymbolTable[] tables, int[] bounds, TokenBuffer[] results, Exception[] errors,
+                  int from, int to) {
+            this.src = src;
+            this.tables = tables;
+            this.bounds = bounds;
+            this.results = results;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(src, tables, bounds, results, errors, from, mid),
+                        new ChunkTask(src, tables, bounds, results, errors, mid, to));
+                return;
+            }
+            ByteBuffer chunk = src.duplicate();
+            chunk.limit(bounds[from + 1]).position(bounds[from]);
+            // a chunk holds roughly one token per 4 bytes of board rows
+            TokenBuffer tokens = new TokenBuffer((bounds[from + 1] - bounds[from]) / 4);
+            SymbolTable symbols = null;
+            if (tables != null) {
+                symbols = new SymbolTable();
+                tables[from] = symbols;
+            }
+            try {
+                new ByteLexer(chunk, symbols).tokenize(tokens);
+                results[from] = tokens;
+            } catch (Exception e) {
+                errors[from] = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package parser;
+
+/**
+ * Represents inner state of lexical analyzer.
+ */
+enum State {
+    LEX_S,
+    /**
+     * Not yet final state of string.
+     */
+    LEX_STR1,
+    /**
+     * Not yet final state of comment.
+     */
+    LEX_COMMENT1,
+    LEX_COMMENTF,
+    LEX_INT,
+    LEX_NAME,
+    /**
+     * ( was found.
+     */
+    LEX_FIELD1,
+    /**
+     * x was found --> this field has no id.
+     */
+    LEX_FIELDX,
+    /**
+     * id was found --> this field has id.
+     */
+    LEX_FIELD2,
+    /**
+     * White space found --> end of field's id.
+     */
+    LEX_FIELD3,
+    /**
+     * '-' was read --> must be negative integer.
+     */
+    LEX_MINUS,
+}
@@ -0,0 +1,192 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interns names and string literals into dense integer ids (0, 1, 2, ...).
+ * Lookup of already interned UTF-8 bytes allocates nothing, so lexers can intern every {@link Token.Type#T_NAME}
+ * and {@link Token.Type#T_STR} they find. Every table starts with the common model names, which have fixed ids
+ * ({@link #BOARD}, {@link #PLAYER}, {@link #NAME}, {@link #INCOME}, {@link #IS_GOOD}).
+ * <p>
+ * The table is not thread safe. {@link ParallelLexer} gives every chunk its own table and interns them into the
+ * caller's table when chunks are joined (see {@link #internAll(SymbolTable)}), so lexers never share one.
+ */
+public class SymbolTable {
+    public static final int BOARD = 0;
+    public static final int PLAYER = 1;
+    public static final int NAME = 2;
+    public static final int INCOME = 3;
+    public static final int IS_GOOD = 4;
+    private static final String[] KEYWORDS = {"board", "player", "name", "income", "isGOOD"};
+
+    private String[] names;
+    private byte[][] bytes;
+    private int[] hashes;
+    /**
+     * Open addressing hash table of ids + 1, 0 is an empty slot. Length is a power of two.
+     */
+    private int[] slots;
+    private int size;
+
+    public SymbolTable() {
+        names = new String[16];
+        bytes = new byte[16][];
+        hashes = new int[16];
+        slots = new int[32];
+        size = 0;
+        for (String keyword : KEYWORDS) {
+            intern(keyword);
+        }
+    }
+
+    /**
+     * Interns UTF-8 encoded name.
+     *
+     * @param src    Buffer containing the name.
+     * @param offset Index of the first byte of the name.
+     * @param length Length of the name in bytes.
+     * @return Id of the name.
+     */
+    public int intern(ByteBuffer src, int offset, int length) {
+        int hash = hash(src, offset, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equals(bytes[id], src, offset, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        byte[] copy = new byte[length];
+        src.get(offset, copy);
+        return add(copy, new String(copy, StandardCharsets.UTF_8), hash, slot);
+    }
+
+    /**
+     * Interns name.
+     *
+     * @param name Name to intern.
+     * @return Id of the name.
+     */
+    public int intern(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        return intern(ByteBuffer.wrap(utf8), 0, utf8.length);
+    }
+
+    /**
+     * Finds id of already interned name.
+     *
+     * @param name Name to look for.
+     * @return Id of the name, -1 if it was never interned.
+     */
+    public int find(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer src = ByteBuffer.wrap(utf8);
+        int hash = hash(src, 0, utf8.length);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && Arrays.equals(bytes[id], utf8)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param id Id of interned name.
+     * @return The name, always the same instance for the same id.
+     */
+    public String getName(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Symbol " + id + " out of bounds for size " + size + ".");
+        }
+        return names[id];
+    }
+
+    /**
+     * @param id Id of interned name.
+     * @return UTF-8 encoding of the name, must not be modified.
+     */
+    byte[] getBytes(int id) {
+        getName(id);
+        return bytes[id];
+    }
+
+    /**
+     * Interns every name of other table, in order of their ids.
+     *
+     * @param other Table to take names from.
+     * @return Id in this table of every id of the other table.
+     */
+    int[] internAll(SymbolTable other) {
+        int[] ids = new int[other.size];
+        for (int id = 0; id < other.size; id++) {
+            byte[] utf8 = other.bytes[id];
+            ids[id] = intern(ByteBuffer.wrap(utf8), 0, utf8.length);
+        }
+        return ids;
+    }
+
+    /**
+     * @return Number of interned names.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(byte[] utf8, String name, int hash, int slot) {
+        int id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+            bytes = Arrays.copyOf(bytes, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        names[id] = name;
+        bytes[id] = utf8;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        size++;
+        // keep load factor at most 1/2
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(ByteBuffer src, int offset, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + src.get(offset + i);
+        }
+        // spread higher bits to the lower ones used by the mask
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(byte[] utf8, ByteBuffer src, int offset, int length) {
+        if (utf8.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (utf8[i] != src.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
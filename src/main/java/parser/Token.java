@@ -12,6 +12,8 @@ package parser;
  *     <li>{@link Token.Type#T_BOOL} --> Has a boolean literal as its value (use {@link #getBoolValue()} to get it).</li>
  *     <li>{@link Token.Type#T_FIELD} --> Has a int id as its value (use {@link #getId()} to get it).</li>
  * </ul>
+ * If lexer interns values into {@link SymbolTable}, {@link Token.Type#T_STR} and {@link Token.Type#T_NAME} also have
+ * symbol id (use {@link #getSymbol()} to get it).
  */
 public class Token {
 
@@ -21,12 +23,24 @@ public class Token {
     private String strValue;
     private Integer intValue;
     private Boolean boolValue;
+    private Integer symbol;
 
     /**
      * @param type Type of token.
      * @param value Value of token. If this type of token has no value, null is passed instead.
      */
     public Token(Token.Type type, Object value){
+        this(type, value, null);
+    }
+
+    /**
+     * @param type Type of token.
+     * @param value Value of token. If this type of token has no value, null is passed instead.
+     * @param symbol Id of the value in {@link SymbolTable} for {@link Token.Type#T_STR} and {@link Token.Type#T_NAME},
+     *               null if the value was not interned.
+     */
+    public Token(Token.Type type, Object value, Integer symbol){
+        this.symbol = symbol;
         this.strValue = null;
         this.intValue = null;
         this.boolValue = null;
@@ -145,6 +159,17 @@ public class Token {
         return this.getIntValue();
     }
 
+    /**
+     * Getter for id of token's value in {@link SymbolTable}.
+     * @return Id if value of this token was interned, otherwise {@link  NullPointerException}.
+     */
+    public Integer getSymbol() {
+        if (this.symbol == null){
+            throw new NullPointerException("This token does not contain symbol.");
+        }
+        return this.symbol;
+    }
+
     /**
      * Getter for token type.
      * @return Type of token.
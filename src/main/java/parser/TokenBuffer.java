@@ -0,0 +1,305 @@
+package parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable column store of tokens, filled by {@link ByteLexer#tokenize(TokenBuffer)}.
+ * Token {@code i} is described by:
+ * <ul>
+ *     <li>type --> ordinal of {@link Token.Type} (use {@link #getType(int)} to get the enum).</li>
+ *     <li>value --> int value of {@link Token.Type#T_INT} and id of {@link Token.Type#T_FIELD},
+ *     1/0 for {@link Token.Type#T_BOOL}.</li>
+ *     <li>offset and length --> position of the value of {@link Token.Type#T_STR} and {@link Token.Type#T_NAME}
+ *     in UTF-8 encoded source. If the lexer had a {@link SymbolTable}, value is the symbol id of such token.</li>
+ * </ul>
+ * Columns that have no meaning for the token's type are never written and hold no particular value.
+ * Once grown, a buffer can be {@link #clear() cleared} and reused without allocating.
+ */
+public class TokenBuffer {
+    private static final Token.Type[] TYPES = Token.Type.values();
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int[] types;
+    private int[] values;
+    private int[] offsets;
+    private int[] lengths;
+    private int size;
+    private ByteBuffer source;
+
+    public TokenBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Number of tokens that fit in without growing.
+     */
+    public TokenBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.types = new int[capacity];
+        this.values = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Removes all tokens, capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+        source = null;
+    }
+
+    /**
+     * Appends a token without value.
+     *
+     * @param type Ordinal of token's type.
+     */
+    public void add(int type) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size++] = type;
+    }
+
+    /**
+     * Appends a token with int or bool value.
+     *
+     * @param type  Ordinal of token's type.
+     * @param value Int value, 1/0 for booleans.
+     */
+    public void add(int type, int value) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        values[size++] = value;
+    }
+
+    /**
+     * Appends a token with string value.
+     *
+     * @param type   Ordinal of token's type.
+     * @param offset Offset of the value in source.
+     * @param length Length of the value in bytes.
+     */
+    public void add(int type, int offset, int length) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        offsets[size] = offset;
+        lengths[size++] = length;
+    }
+
+    /**
+     * Appends a token with string value interned in {@link SymbolTable}.
+     *
+     * @param type   Ordinal of token's type.
+     * @param symbol Symbol id of the value.
+     * @param offset Offset of the value in source.
+     * @param length Length of the value in bytes.
+     */
+    public void add(int type, int symbol, int offset, int length) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        values[size] = symbol;
+        offsets[size] = offset;
+        lengths[size++] = length;
+    }
+
+    /**
+     * Appends first count tokens of other buffer. Offsets are copied as they are, so both buffers should share
+     * the same source.
+     *
+     * @param other Buffer to copy tokens from.
+     * @param count Number of tokens to copy.
+     */
+    public void addAll(TokenBuffer other, int count) {
+        if (count < 0 || count > other.size) {
+            throw new IndexOutOfBoundsException("Cannot copy " + count + " tokens out of " + other.size + ".");
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(other.types, 0, types, size, count);
+        System.arraycopy(other.values, 0, values, size, count);
+        System.arraycopy(other.offsets, 0, offsets, size, count);
+        System.arraycopy(other.lengths, 0, lengths, size, count);
+        size += count;
+    }
+
+    /**
+     * Grows the buffer, so that given number of tokens fits in.
+     *
+     * @param capacity Required capacity.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            resize(Math.max(capacity, types.length * 2));
+        }
+    }
+
+    /**
+     * Replaces content of the buffer with given columns, arrays are used directly (not copied).
+     */
+    void setColumns(int[] types, int[] values, int[] offsets, int[] lengths, int size, ByteBuffer source) {
+        this.types = types;
+        this.values = values;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.size = size;
+        this.source = source;
+    }
+
+    private void grow() {
+        resize(types.length * 2);
+    }
+
+    private void resize(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        values = Arrays.copyOf(values, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    /**
+     * @return Number of tokens.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the bytes offsets point to.
+     *
+     * @return UTF-8 encoded source of string values, null for empty buffer.
+     */
+    public ByteBuffer getSource() {
+        return source;
+    }
+
+    /**
+     * @param source UTF-8 encoded source string values point to.
+     */
+    public void setSource(ByteBuffer source) {
+        this.source = source;
+    }
+
+    /**
+     * @return Type of i-th token.
+     */
+    public Token.Type getType(int i) {
+        return TYPES[types[checkIndex(i)]];
+    }
+
+    /**
+     * @return Ordinal of type of i-th token.
+     */
+    public int getTypeOrdinal(int i) {
+        return types[checkIndex(i)];
+    }
+
+    /**
+     * @return Int value (or 1/0 for booleans) of i-th token.
+     */
+    public int getValue(int i) {
+        return values[checkIndex(i)];
+    }
+
+    /**
+     * Getter for symbol id, only valid if the lexer had a {@link SymbolTable}. This method is only sugar for
+     * {@link #getValue(int)}.
+     *
+     * @return Symbol id of string value of i-th token.
+     */
+    public int getSymbol(int i) {
+        return getValue(i);
+    }
+
+    /**
+     * Replaces symbol id of every {@link Token.Type#T_STR} and {@link Token.Type#T_NAME} token by its id in another
+     * table.
+     *
+     * @param ids New id of every old id, see {@link SymbolTable#internAll(SymbolTable)}.
+     */
+    void remapSymbols(int[] ids) {
+        int str = Token.Type.T_STR.ordinal();
+        int name = Token.Type.T_NAME.ordinal();
+        for (int i = 0; i < size; i++) {
+            if (types[i] == str || types[i] == name) {
+                values[i] = ids[values[i]];
+            }
+        }
+    }
+
+    /**
+     * @return Offset of string value of i-th token in source.
+     */
+    public int getOffset(int i) {
+        return offsets[checkIndex(i)];
+    }
+
+    /**
+     * @return Length in bytes of string value of i-th token.
+     */
+    public int getLength(int i) {
+        return lengths[checkIndex(i)];
+    }
+
+    /**
+     * Decodes string value of i-th token. Allocates, prefer {@link #contentEquals(int, String)} in hot loops.
+     *
+     * @return String value of {@link Token.Type#T_STR} or {@link Token.Type#T_NAME} token.
+     */
+    public String getStrValue(int i) {
+        checkIndex(i);
+        byte[] bytes = new byte[lengths[i]];
+        source.get(offsets[i], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares string value of i-th token with ASCII text without decoding it.
+     *
+     * @param i     Index of token.
+     * @param ascii Text containing only ASCII characters.
+     * @return true if the value is equal to the text.
+     */
+    public boolean contentEquals(int i, String ascii) {
+        checkIndex(i);
+        int length = lengths[i];
+        if (length != ascii.length()) {
+            return false;
+        }
+        int offset = offsets[i];
+        for (int k = 0; k < length; k++) {
+            if (source.get(offset + k) != ascii.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates standalone {@link Token} out of i-th token.
+     */
+    public Token toToken(int i) {
+        Token.Type type = getType(i);
+        return switch (type) {
+            case T_STR, T_NAME -> new Token(type, getStrValue(i));
+            case T_INT, T_FIELD -> new Token(type, values[i]);
+            case T_BOOL -> new Token(type, values[i] == 1);
+            default -> new Token(type, null);
+        };
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Token index " + i + " out of bounds for size " + size + ".");
+        }
+        return i;
+    }
+}
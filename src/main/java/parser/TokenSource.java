@@ -0,0 +1,32 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Anything that produces {@link Token}s one by one.
+ */
+public interface TokenSource {
+
+    /**
+     * Reads next token.
+     *
+     * @return Found Token, {@link Token.Type#T_EOF} once the input is exhausted.
+     */
+    Token readToken() throws Exception;
+
+    /**
+     * Reads all remaining tokens.
+     *
+     * @return Found tokens, last one is always {@link Token.Type#T_EOF}.
+     */
+    default List<Token> readAll() throws Exception {
+        List<Token> tokens = new ArrayList<>();
+        Token t;
+        do {
+            t = readToken();
+            tokens.add(t);
+        } while (t.getType() != Token.Type.T_EOF);
+        return tokens;
+    }
+}
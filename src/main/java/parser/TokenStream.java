@@ -0,0 +1,158 @@
+package parser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over tokens of a {@link TokenSource} with lookahead of a fixed number of tokens.
+ * Tokens are read ahead in batches into a ring buffer, so {@link #peek(int)} is an array access. Only the ring buffer
+ * is kept in memory, so whole files can be processed by {@link #stream()} without collecting their tokens.
+ * <p>
+ * Iteration ends with (and includes) {@link Token.Type#T_EOF}. Errors of the source are thrown as
+ * {@link IllegalStateException} once the token that could not be read is requested, tokens before it are returned
+ * normally. A single instance is not thread safe.
+ */
+public class TokenStream implements Iterator<Token> {
+    public static final int DEFAULT_LOOKAHEAD = 8;
+    /**
+     * Minimal number of tokens read by one refill.
+     */
+    private static final int BATCH = 64;
+
+    private final TokenSource source;
+    /**
+     * Ring buffer of read tokens, length is a power of two.
+     */
+    private final Token[] ring;
+    private final int lookahead;
+    private int head;
+    private int count;
+    private boolean eofRead;
+    private boolean eofReturned;
+    /**
+     * Error of the source that occurred after the buffered tokens.
+     */
+    private Exception error;
+
+    /**
+     * Creates stream with {@link #DEFAULT_LOOKAHEAD}.
+     *
+     * @param source Source of tokens.
+     */
+    public TokenStream(TokenSource source) {
+        this(source, DEFAULT_LOOKAHEAD);
+    }
+
+    /**
+     * @param source    Source of tokens.
+     * @param lookahead How many tokens can be peeked at, must be positive.
+     */
+    public TokenStream(TokenSource source, int lookahead) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be positive, got " + lookahead + ".");
+        }
+        this.source = source;
+        this.lookahead = lookahead;
+        this.ring = new Token[Integer.highestOneBit(Math.max(lookahead, BATCH) * 2 - 1)];
+        this.head = 0;
+        this.count = 0;
+    }
+
+    /**
+     * @return True until {@link Token.Type#T_EOF} is returned.
+     */
+    @Override
+    public boolean hasNext() {
+        return !eofReturned;
+    }
+
+    @Override
+    public Token next() {
+        if (eofReturned) {
+            throw new NoSuchElementException("End of input was already returned.");
+        }
+        Token t = peek(0);
+        ring[head] = null;
+        head = (head + 1) & (ring.length - 1);
+        count--;
+        eofReturned = t.getType() == Token.Type.T_EOF;
+        return t;
+    }
+
+    /**
+     * @return Next token, without consuming it.
+     */
+    public Token peek() {
+        return peek(0);
+    }
+
+    /**
+     * Looks ahead without consuming tokens.
+     *
+     * @param k Index of the token, 0 is the token {@link #next()} returns.
+     * @return K-th next token, {@link Token.Type#T_EOF} if the input ends before it.
+     */
+    public Token peek(int k) {
+        if (k < 0 || k >= lookahead) {
+            throw new IndexOutOfBoundsException("Lookahead " + k + " out of bounds for length " + lookahead + ".");
+        }
+        if (eofReturned) {
+            throw new NoSuchElementException("End of input was already returned.");
+        }
+        if (k >= count) {
+            fill();
+            if (k >= count) {
+                if (error != null) {
+                    throw new IllegalStateException("Cannot read token: " + error.getMessage(), error);
+                }
+                // only EOF is left, it is the last buffered token
+                k = count - 1;
+            }
+        }
+        return ring[(head + k) & (ring.length - 1)];
+    }
+
+    /**
+     * Shortcut for {@code peek(k).getType()}.
+     */
+    public Token.Type peekType(int k) {
+        return peek(k).getType();
+    }
+
+    /**
+     * @return Sequential ordered spliterator over the remaining tokens.
+     */
+    public Spliterator<Token> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * @return Sequential stream of the remaining tokens, {@link Token.Type#T_EOF} is the last one.
+     */
+    public Stream<Token> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Reads tokens into all free slots of the ring buffer, stops at the end of input or at the first error.
+     */
+    private void fill() {
+        while (count < ring.length && !eofRead && error == null) {
+            Token t;
+            try {
+                t = source.readToken();
+            } catch (Exception e) {
+                error = e;
+                return;
+            }
+            ring[(head + count) & (ring.length - 1)] = t;
+            count++;
+            eofRead = t.getType() == Token.Type.T_EOF;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package sim;
+
+import java.util.Arrays;
+
+/**
+ * Visits and collected income of fields counted by one simulation task without any synchronization, added to
+ * {@link FieldStatistics} once when the task finishes. Boards with at most {@link #MAX_DENSE_FIELDS} fields are
+ * counted in arrays with an element per field, larger ones in a hash table of only the fields the task landed on,
+ * so a task never allocates per field of a huge board.
+ */
+final class FieldCounters {
+    static final int MAX_DENSE_FIELDS = 1 << 16;
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Open addressing hash table of fields, {@link #EMPTY} is an empty slot; counters of the field are at the same
+     * index of {@link #visits} and {@link #income}. Length is a power of two. Null if counters are indexed by field.
+     */
+    private int[] fields;
+    private long[] visits;
+    private long[] income;
+    private int size;
+
+    /**
+     * @param fieldCount Number of fields of the board.
+     */
+    FieldCounters(int fieldCount) {
+        if (fieldCount <= MAX_DENSE_FIELDS) {
+            visits = new long[fieldCount];
+            income = new long[fieldCount];
+        } else {
+            allocate(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Counts a player landing on the field.
+     *
+     * @param collected Income the player collected on the way.
+     */
+    void add(int field, long collected) {
+        int i = fields == null ? field : slot(field);
+        visits[i]++;
+        income[i] += collected;
+    }
+
+    /**
+     * Adds all counters to the statistics, one atomic update per field that was landed on.
+     */
+    void addTo(FieldStatistics statistics) {
+        for (int i = 0; i < visits.length; i++) {
+            if (visits[i] != 0) {
+                int field = fields == null ? i : fields[i];
+                statistics.addVisits(field, visits[i]);
+                if (income[i] != 0) {
+                    statistics.addIncome(field, income[i]);
+                }
+            }
+        }
+    }
+
+    private int slot(int field) {
+        int mask = fields.length - 1;
+        int i = hash(field) & mask;
+        while (fields[i] != field) {
+            if (fields[i] == EMPTY) {
+                // keep load factor at most 1/2
+                if ((size + 1) * 2 > fields.length) {
+                    rehash();
+                    return slot(field);
+                }
+                fields[i] = field;
+                size++;
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void allocate(int capacity) {
+        fields = new int[capacity];
+        Arrays.fill(fields, EMPTY);
+        visits = new long[capacity];
+        income = new long[capacity];
+        size = 0;
+    }
+
+    private void rehash() {
+        int[] oldFields = fields;
+        long[] oldVisits = visits;
+        long[] oldIncome = income;
+        allocate(oldFields.length * 2);
+        for (int i = 0; i < oldFields.length; i++) {
+            if (oldFields[i] != EMPTY) {
+                int j = slot(oldFields[i]);
+                visits[j] = oldVisits[i];
+                income[j] = oldIncome[i];
+            }
+        }
+    }
+
+    private static int hash(int field) {
+        int h = field * 0x9E3779B9;
+        // spread higher bits to the lower ones used by the mask
+        return h ^ (h >>> 16);
+    }
+}
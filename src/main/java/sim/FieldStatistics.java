@@ -0,0 +1,136 @@
+package sim;
+
+import util.OffHeapIntArray;
+import util.OffHeapLongArray;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Per-field counters of a simulation run, stored off the Java heap, so boards with tens of millions of fields do not
+ * add to garbage collection. Fields are indexed by their position on the track, i.e. in order of their ids.
+ * <p>
+ * Counters are updated atomically without locks by any number of simulation tasks. {@link Simulation} tasks count
+ * into their own {@link FieldCounters} and add them here once per task, so they do not contend on shared cache
+ * lines. After the run the counters are read directly from the off-heap arrays without copying.
+ */
+public class FieldStatistics {
+    private final int fieldCount;
+    private final OffHeapLongArray visits;
+    private final OffHeapLongArray income;
+    /**
+     * Index of the owning player plus one, 0 for no owner (so zeroed memory means no owners).
+     */
+    private final OffHeapIntArray owners;
+
+    private FieldStatistics(int fieldCount, OffHeapLongArray visits, OffHeapLongArray income,
+                            OffHeapIntArray owners) {
+        this.fieldCount = fieldCount;
+        this.visits = visits;
+        this.income = income;
+        this.owners = owners;
+    }
+
+    /**
+     * @param fieldCount Number of fields of the board.
+     * @return Zeroed statistics in direct memory.
+     */
+    public static FieldStatistics allocate(int fieldCount) {
+        checkFieldCount(fieldCount);
+        return new FieldStatistics(fieldCount, OffHeapLongArray.allocate(fieldCount),
+                OffHeapLongArray.allocate(fieldCount), OffHeapIntArray.allocate(fieldCount));
+    }
+
+    /**
+     * Maps statistics to files {@code visits.bin}, {@code income.bin} and {@code owners.bin} in the directory.
+     * Counters already in the files are kept, so more runs can add to them.
+     *
+     * @param dir        Existing directory.
+     * @param fieldCount Number of fields of the board.
+     * @return Statistics backed by the files.
+     */
+    public static FieldStatistics map(Path dir, int fieldCount) throws IOException {
+        checkFieldCount(fieldCount);
+        return new FieldStatistics(fieldCount, OffHeapLongArray.map(dir.resolve("visits.bin"), fieldCount),
+                OffHeapLongArray.map(dir.resolve("income.bin"), fieldCount),
+                OffHeapIntArray.map(dir.resolve("owners.bin"), fieldCount));
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Counts a player landing on the field.
+     */
+    public void visit(int field) {
+        visits.add(field, 1);
+    }
+
+    /**
+     * Counts players landing on the field.
+     */
+    public void addVisits(int field, long count) {
+        visits.add(field, count);
+    }
+
+    /**
+     * Adds income collected by a player who landed on the field.
+     */
+    public void addIncome(int field, long amount) {
+        income.add(field, amount);
+    }
+
+    /**
+     * Makes the player owner of the field if it has no owner yet.
+     *
+     * @return True if the player became the owner.
+     */
+    public boolean claim(int field, int player) {
+        return owners.compareAndSet(field, 0, player + 1);
+    }
+
+    public long getVisits(int field) {
+        return visits.getVolatile(field);
+    }
+
+    public long getIncome(int field) {
+        return income.getVolatile(field);
+    }
+
+    /**
+     * @return Index of the owning player, {@link GameState#NOBODY} if the field has no owner.
+     */
+    public int getOwner(int field) {
+        return owners.getVolatile(field) - 1;
+    }
+
+    /**
+     * @return Visits of all fields, for reading without copying.
+     */
+    public OffHeapLongArray getVisits() {
+        return visits;
+    }
+
+    /**
+     * @return Income of all fields, for reading without copying.
+     */
+    public OffHeapLongArray getIncome() {
+        return income;
+    }
+
+    /**
+     * Writes counters of mapped statistics to their files.
+     */
+    public void force() {
+        visits.force();
+        income.force();
+        owners.force();
+    }
+
+    private static void checkFieldCount(int fieldCount) {
+        if (fieldCount < 1) {
+            throw new IllegalArgumentException("Number of fields must be positive, got " + fieldCount + ".");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package sim;
+
+import model.Board;
+import model.Player;
+import util.SharedIntArray;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable state of one game that can be {@link #fork() forked} cheaply, for search that tries many branches.
+ * <p>
+ * The state consists of the owner of every cell of the board, the position of every player, integer attributes of
+ * every player and money of every player. Cells and attributes are kept in {@link SharedIntArray}s, so a fork
+ * costs O(values changed afterwards), not O(board size). Money is a small array copied by every fork.
+ * <p>
+ * Attributes are {@code income} (always attribute 0) and every integer or boolean (1 or 0) property that any
+ * player defines, players that do not define a property have 0.
+ */
+public final class GameState {
+    /**
+     * Owner of a cell nobody owns.
+     */
+    public static final int NOBODY = -1;
+    public static final int INCOME = 0;
+
+    private final Board board;
+    private final List<Player> players;
+    /**
+     * Index of every attribute by name, shared by all forks.
+     */
+    private final Map<String, Integer> attributeIndexes;
+    private final int attributeCount;
+    private final SharedIntArray owners;
+    private final SharedIntArray positions;
+    private final SharedIntArray attributes;
+    private final long[] money;
+
+    private GameState(Board board, List<Player> players, Map<String, Integer> attributeIndexes,
+                      SharedIntArray owners, SharedIntArray positions, SharedIntArray attributes, long[] money) {
+        this.board = board;
+        this.players = players;
+        this.attributeIndexes = attributeIndexes;
+        this.attributeCount = attributeIndexes.size();
+        this.owners = owners;
+        this.positions = positions;
+        this.attributes = attributes;
+        this.money = money;
+    }
+
+    /**
+     * Creates state of a new game: no cell is owned, every player is on the cell of the field with the lowest id
+     * and has no money.
+     *
+     * @param board   Board of the game, must have at least one field.
+     * @param players Players of the game.
+     * @return Initial state.
+     */
+    public static GameState initial(Board board, List<Player> players) {
+        if (board.getFieldCount() == 0) {
+            throw new IllegalArgumentException("Board has no fields.");
+        }
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        indexes.put("income", INCOME);
+        for (Player p : players) {
+            for (Map.Entry<String, Object> e : p.getProperties().entrySet()) {
+                if (e.getValue() instanceof Integer || e.getValue() instanceof Boolean) {
+                    indexes.putIfAbsent(e.getKey(), indexes.size());
+                }
+            }
+        }
+        int[] values = new int[players.size() * indexes.size()];
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            values[i * indexes.size() + INCOME] = p.getIncome();
+            for (Map.Entry<String, Object> e : p.getProperties().entrySet()) {
+                Integer index = indexes.get(e.getKey());
+                if (index != null) {
+                    Object v = e.getValue();
+                    values[i * indexes.size() + index] = v instanceof Boolean b ? (b ? 1 : 0) : (Integer) v;
+                }
+            }
+        }
+        // one pass over the cells, ids may be sparse and start far from 0
+        int start = NOBODY;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            int id = board.getId(cell);
+            if (id != Board.EMPTY && (start == NOBODY || id < board.getId(start))) {
+                start = cell;
+            }
+        }
+        return new GameState(board, List.copyOf(players), Map.copyOf(indexes),
+                new SharedIntArray(board.getCellCount(), NOBODY), new SharedIntArray(players.size(), start),
+                new SharedIntArray(values), new long[players.size()]);
+    }
+
+    /**
+     * Creates independent copy of the state. Changes of the copy are not visible in this state and the other way
+     * round.
+     *
+     * @return The copy.
+     */
+    public GameState fork() {
+        return new GameState(board, players, attributeIndexes, owners.fork(), positions.fork(), attributes.fork(),
+                money.clone());
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public int getPlayerCount() {
+        return money.length;
+    }
+
+    /**
+     * @return Index of the player owning the cell, {@link #NOBODY} if nobody owns it.
+     */
+    public int getOwner(int cell) {
+        return owners.get(cell);
+    }
+
+    /**
+     * @param cell   Cell of the board.
+     * @param player Index of the new owner, {@link #NOBODY} to release the cell.
+     */
+    public void setOwner(int cell, int player) {
+        owners.set(cell, player);
+    }
+
+    /**
+     * @return Cell the player stands on.
+     */
+    public int getPosition(int player) {
+        return positions.get(player);
+    }
+
+    public void setPosition(int player, int cell) {
+        positions.set(player, cell);
+    }
+
+    public long getMoney(int player) {
+        return money[player];
+    }
+
+    public void addMoney(int player, long amount) {
+        money[player] += amount;
+    }
+
+    /**
+     * @param name Name of attribute.
+     * @return Index of the attribute, -1 if no player has it.
+     */
+    public int getAttributeIndex(String name) {
+        return attributeIndexes.getOrDefault(name, -1);
+    }
+
+    public int getAttribute(int player, int attribute) {
+        return attributes.get(player * attributeCount + attribute);
+    }
+
+    public void setAttribute(int player, int attribute, int value) {
+        attributes.set(player * attributeCount + attribute, value);
+    }
+
+    /**
+     * @return Money of all players.
+     */
+    public long[] getMoney() {
+        return Arrays.copyOf(money, money.length);
+    }
+}
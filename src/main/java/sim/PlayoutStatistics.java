@@ -0,0 +1,245 @@
+package sim;
+
+import util.Histogram;
+import util.RunningStats;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Distributions of playout outcomes in constant memory: final money of every player and length of the game in dice
+ * rolls (mean, variance and histogram of each), and visits of every field for top-k frequencies.
+ * <p>
+ * Every task of {@link Simulation} fills its own instance and publishes it to a {@link StatisticsCollector}, which
+ * merges them into snapshots. Field visits are counted in an array with an element per field, only for boards
+ * with at most {@link #MAX_COUNTED_FIELDS} fields; use {@link FieldStatistics} for larger ones.
+ * A single instance is not thread safe.
+ */
+public class PlayoutStatistics {
+    public static final int MAX_COUNTED_FIELDS = 1 << 20;
+
+    private final RunningStats[] money;
+    private final Histogram[] moneyHistograms;
+    private final RunningStats rolls = new RunningStats();
+    private final Histogram rollsHistogram = new Histogram();
+    /**
+     * Visits of every field, null if the board has too many fields.
+     */
+    private final long[] visits;
+
+    /**
+     * @param players Number of players.
+     * @param fields  Number of fields of the board.
+     */
+    public PlayoutStatistics(int players, int fields) {
+        this.money = new RunningStats[players];
+        this.moneyHistograms = new Histogram[players];
+        for (int i = 0; i < players; i++) {
+            money[i] = new RunningStats();
+            moneyHistograms[i] = new Histogram();
+        }
+        this.visits = fields <= MAX_COUNTED_FIELDS ? new long[fields] : null;
+    }
+
+    /**
+     * Counts a player landing on the field.
+     */
+    void visit(int field) {
+        if (visits != null) {
+            visits[field]++;
+        }
+    }
+
+    /**
+     * Records finished playout.
+     *
+     * @param finalMoney Money of every player at the end of the playout.
+     * @param rollCount  Number of dice rolls of the playout.
+     */
+    void add(long[] finalMoney, long rollCount) {
+        for (int i = 0; i < money.length; i++) {
+            money[i].add(finalMoney[i]);
+            moneyHistograms[i].add(finalMoney[i]);
+        }
+        rolls.add(rollCount);
+        rollsHistogram.add(rollCount);
+    }
+
+    /**
+     * Adds all playouts of other statistics of the same game.
+     */
+    public void merge(PlayoutStatistics other) {
+        if (other.money.length != money.length || (other.visits == null) != (visits == null)
+                || (visits != null && other.visits.length != visits.length)) {
+            throw new IllegalArgumentException("Statistics of different games cannot be merged.");
+        }
+        for (int i = 0; i < money.length; i++) {
+            money[i].merge(other.money[i]);
+            moneyHistograms[i].merge(other.moneyHistograms[i]);
+        }
+        rolls.merge(other.rolls);
+        rollsHistogram.merge(other.rollsHistogram);
+        if (visits != null) {
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] += other.visits[i];
+            }
+        }
+    }
+
+    /**
+     * @return Independent copy.
+     */
+    public PlayoutStatistics copy() {
+        // too many fields again make a copy without visits
+        PlayoutStatistics copy = new PlayoutStatistics(money.length, visits == null ? Integer.MAX_VALUE
+                : visits.length);
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getPlayouts() {
+        return rolls.getCount();
+    }
+
+    public int getPlayerCount() {
+        return money.length;
+    }
+
+    public RunningStats getMoney(int player) {
+        return money[player];
+    }
+
+    public Histogram getMoneyHistogram(int player) {
+        return moneyHistograms[player];
+    }
+
+    /**
+     * @return Statistics of the number of dice rolls of a playout.
+     */
+    public RunningStats getRolls() {
+        return rolls;
+    }
+
+    public Histogram getRollsHistogram() {
+        return rollsHistogram;
+    }
+
+    /**
+     * @return Number of landings on the field, 0 if visits are not counted.
+     */
+    public long getVisits(int field) {
+        return visits == null ? 0 : visits[field];
+    }
+
+    /**
+     * @param k Maximal number of fields.
+     * @return Fields with the most visits in descending order of visits (ties by lower field), only fields that were
+     * visited.
+     */
+    public int[] getTopFields(int k) {
+        if (visits == null || k <= 0) {
+            return new int[0];
+        }
+        // insertion into a sorted array of k best, fine for the small k of a report
+        int[] top = new int[Math.min(k, visits.length)];
+        int size = 0;
+        for (int f = 0; f < visits.length; f++) {
+            if (visits[f] == 0 || (size == top.length && visits[f] <= visits[top[size - 1]])) {
+                continue;
+            }
+            int i = size == top.length ? size - 1 : size++;
+            while (i > 0 && visits[top[i - 1]] < visits[f]) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = f;
+        }
+        return Arrays.copyOf(top, size);
+    }
+
+    /**
+     * Exports summary as CSV with header {@code metric,count,mean,stddev,min,max,p50,p90,p99}. Rows are
+     * {@code money[player]}, {@code rolls} and {@code visits[field]} of top fields (with only the count).
+     *
+     * @param topFields Number of top fields to export.
+     */
+    public String toCsv(int topFields) {
+        StringBuilder sb = new StringBuilder("metric,count,mean,stddev,min,max,p50,p90,p99\n");
+        for (int i = 0; i < money.length; i++) {
+            csvRow(sb, "money[" + i + "]", money[i], moneyHistograms[i]);
+        }
+        csvRow(sb, "rolls", rolls, rollsHistogram);
+        for (int f : getTopFields(topFields)) {
+            sb.append("visits[").append(f).append("],").append(visits[f]).append(",,,,,,,\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports summary as JSON object with {@code playouts}, {@code money} (array by player), {@code rolls} and
+     * {@code topFields}.
+     *
+     * @param topFields Number of top fields to export.
+     */
+    public String toJson(int topFields) {
+        StringBuilder sb = new StringBuilder("{\"playouts\":").append(getPlayouts()).append(",\"money\":[");
+        for (int i = 0; i < money.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            jsonObject(sb, money[i], moneyHistograms[i]);
+        }
+        sb.append("],\"rolls\":");
+        jsonObject(sb, rolls, rollsHistogram);
+        sb.append(",\"topFields\":[");
+        int[] top = getTopFields(topFields);
+        for (int i = 0; i < top.length; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"field\":").append(top[i]).append(",\"visits\":")
+                    .append(visits[top[i]]).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void csvRow(StringBuilder sb, String metric, RunningStats stats, Histogram histogram) {
+        // no values leave empty cells
+        sb.append(metric).append(',').append(stats.getCount()).append(',')
+                .append(number(mean(stats)).replace("null", "")).append(',')
+                .append(number(standardDeviation(stats)).replace("null", "")).append(',')
+                .append(number(stats.getMin()).replace("null", "")).append(',')
+                .append(number(stats.getMax()).replace("null", "")).append(',')
+                .append(histogram.getValueAtPercentile(50)).append(',').append(histogram.getValueAtPercentile(90))
+                .append(',').append(histogram.getValueAtPercentile(99)).append('\n');
+    }
+
+    private static void jsonObject(StringBuilder sb, RunningStats stats, Histogram histogram) {
+        sb.append("{\"count\":").append(stats.getCount())
+                .append(",\"mean\":").append(number(mean(stats)))
+                .append(",\"stddev\":").append(number(standardDeviation(stats)))
+                .append(",\"min\":").append(number(stats.getMin()))
+                .append(",\"max\":").append(number(stats.getMax()))
+                .append(",\"p50\":").append(histogram.getValueAtPercentile(50))
+                .append(",\"p90\":").append(histogram.getValueAtPercentile(90))
+                .append(",\"p99\":").append(histogram.getValueAtPercentile(99)).append('}');
+    }
+
+    /**
+     * @return Mean, NaN without values like minimum and maximum.
+     */
+    private static double mean(RunningStats stats) {
+        return stats.getCount() == 0 ? Double.NaN : stats.getMean();
+    }
+
+    /**
+     * @return Standard deviation, NaN without values like minimum and maximum.
+     */
+    private static double standardDeviation(RunningStats stats) {
+        return stats.getCount() == 0 ? Double.NaN : stats.getStandardDeviation();
+    }
+
+    /**
+     * @return Number with 4 decimal places, {@code null} for NaN (no values).
+     */
+    private static String number(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,225 @@
+package sim;
+
+import model.Board;
+import model.Player;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of independent playouts of one game configuration.
+ * <p>
+ * Rules of a playout (the game rules are not defined anywhere else yet, so these are deliberately simple):
+ * <ul>
+ *     <li>The track consists of the fields of the board ordered by id, empty cells are not part of it.</li>
+ *     <li>All players start on the first field of the track with no money.</li>
+ *     <li>In every round each player in turn rolls a six-sided die and moves forward, players with
+ *     {@code isGOOD = true} roll once more if they rolled 1.</li>
+ *     <li>Whenever a player passes or lands on the first field, they get their income.</li>
+ *     <li>After the last round the player with the most money wins, ties go to the player defined first.</li>
+ * </ul>
+ * Playouts are split into tasks of a {@link ForkJoinPool}, every task has its own {@link SplittableRandom} split
+ * from the parent's one. The split only depends on the number of playouts, so the result of a seed is the same
+ * on any number of threads.
+ */
+public class Simulation {
+    /**
+     * Tasks with at most this many playouts are not split further.
+     */
+    private static final int THRESHOLD = 1024;
+
+    private final int[] incomes;
+    private final boolean[] good;
+    private final int trackLength;
+    private final int rounds;
+    private FieldStatistics statistics;
+    private StatisticsCollector collector;
+
+    /**
+     * @param board   Board to play on, must have at least one field.
+     * @param players Players in order of turns, at least one.
+     * @param rounds  Number of rounds of a playout.
+     */
+    public Simulation(Board board, List<Player> players, int rounds) {
+        if (board.getFieldCount() == 0) {
+            throw new IllegalArgumentException("Board has no fields.");
+        }
+        if (players.isEmpty()) {
+            throw new IllegalArgumentException("There are no players.");
+        }
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Number of rounds must not be negative, got " + rounds + ".");
+        }
+        this.trackLength = board.getFieldCount();
+        this.rounds = rounds;
+        this.incomes = new int[players.size()];
+        this.good = new boolean[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            incomes[i] = players.get(i).getIncome();
+            good[i] = players.get(i).getFlag("isGOOD");
+        }
+    }
+
+    /**
+     * Records visits and income of every field in runs from now on.
+     *
+     * @param statistics Statistics with a field for every field of the board, null to stop recording.
+     */
+    public void setStatistics(FieldStatistics statistics) {
+        if (statistics != null && statistics.getFieldCount() != trackLength) {
+            throw new IllegalArgumentException("Statistics have " + statistics.getFieldCount() + " fields, board has "
+                    + trackLength + ".");
+        }
+        this.statistics = statistics;
+    }
+
+    /**
+     * Collects distributions of outcomes of playouts in runs from now on.
+     *
+     * @param collector Collector for the players and the board of this simulation, null to stop collecting.
+     */
+    public void setCollector(StatisticsCollector collector) {
+        if (collector != null && (collector.getPlayerCount() != incomes.length
+                || collector.getFieldCount() != trackLength)) {
+            throw new IllegalArgumentException("Collector does not match players and board of the simulation.");
+        }
+        this.collector = collector;
+    }
+
+    /**
+     * Runs playouts in the common pool.
+     *
+     * @param playouts Number of playouts.
+     * @param seed     Seed of the random generator.
+     * @return Statistics of all playouts.
+     */
+    public SimulationResult run(long playouts, long seed) {
+        return run(playouts, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs playouts in given pool.
+     *
+     * @param playouts Number of playouts.
+     * @param seed     Seed of the random generator.
+     * @param pool     Pool to run in.
+     * @return Statistics of all playouts.
+     */
+    public SimulationResult run(long playouts, long seed, ForkJoinPool pool) {
+        if (playouts < 0) {
+            throw new IllegalArgumentException("Number of playouts must not be negative, got " + playouts + ".");
+        }
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new PlayoutTask(playouts, new SplittableRandom(seed)));
+        result.setNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Plays one playout.
+     *
+     * @param rng       Random generator.
+     * @param positions Scratch array for positions of players.
+     * @param money     Money of players, filled by the playout.
+     * @return Index of the winner.
+     */
+    int playout(SplittableRandom rng, int[] positions, long[] money) {
+        return playout(rng, positions, money, null, null);
+    }
+
+    /**
+     * Plays one playout and records it.
+     *
+     * @param counters Field counters of the task to record landings into, null not to record them.
+     * @param outcomes Statistics of the task to record the playout into, null not to record it.
+     * @return Index of the winner.
+     */
+    private int playout(SplittableRandom rng, int[] positions, long[] money, FieldCounters counters,
+                        PlayoutStatistics outcomes) {
+        int players = incomes.length;
+        long rolls = 0;
+        for (int i = 0; i < players; i++) {
+            positions[i] = 0;
+            money[i] = 0;
+        }
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < players; i++) {
+                int roll = rng.nextInt(1, 7);
+                rolls++;
+                if (roll == 1 && good[i]) {
+                    roll = rng.nextInt(1, 7);
+                    rolls++;
+                }
+                int position = positions[i] + roll;
+                long collected = 0;
+                // a roll can pass the start more than once on a short track
+                while (position >= trackLength) {
+                    position -= trackLength;
+                    collected += incomes[i];
+                }
+                money[i] += collected;
+                positions[i] = position;
+                if (counters != null) {
+                    counters.add(position, collected);
+                }
+                if (outcomes != null) {
+                    outcomes.visit(position);
+                }
+            }
+        }
+        if (outcomes != null) {
+            outcomes.add(money, rolls);
+        }
+        int winner = 0;
+        for (int i = 1; i < players; i++) {
+            if (money[i] > money[winner]) {
+                winner = i;
+            }
+        }
+        return winner;
+    }
+
+    @SuppressWarnings("serial") // never serialized
+    private class PlayoutTask extends RecursiveTask<SimulationResult> {
+        private final long playouts;
+        private final SplittableRandom rng;
+
+        PlayoutTask(long playouts, SplittableRandom rng) {
+            this.playouts = playouts;
+            this.rng = rng;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (playouts <= THRESHOLD) {
+                SimulationResult result = new SimulationResult(incomes.length);
+                int[] positions = new int[incomes.length];
+                long[] money = new long[incomes.length];
+                FieldStatistics statistics = Simulation.this.statistics;
+                FieldCounters counters = statistics != null ? new FieldCounters(trackLength) : null;
+                StatisticsCollector collector = Simulation.this.collector;
+                PlayoutStatistics outcomes = collector != null ? collector.newPartial() : null;
+                for (long i = 0; i < playouts; i++) {
+                    result.add(playout(rng, positions, money, counters, outcomes), money);
+                }
+                if (outcomes != null) {
+                    collector.publish(outcomes);
+                }
+                if (statistics != null) {
+                    counters.addTo(statistics);
+                }
+                return result;
+            }
+            long half = playouts / 2;
+            // split before forking, so the tree of generators does not depend on scheduling
+            PlayoutTask left = new PlayoutTask(half, rng.split());
+            PlayoutTask right = new PlayoutTask(playouts - half, rng);
+            left.fork();
+            SimulationResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package sim;
+
+/**
+ * Parameters of a simulation run, read from {@code simulation { rounds = 20, playouts = 10000, seed = 1 }} block.
+ * Missing parameters have default values. Configs are immutable.
+ */
+public final class SimulationConfig {
+    public static final int DEFAULT_ROUNDS = 20;
+    public static final long DEFAULT_PLAYOUTS = 10000;
+    public static final long DEFAULT_SEED = 1;
+    /**
+     * Config with all parameters default.
+     */
+    public static final SimulationConfig DEFAULT = new SimulationConfig(DEFAULT_ROUNDS, DEFAULT_PLAYOUTS,
+            DEFAULT_SEED);
+
+    private final int rounds;
+    private final long playouts;
+    private final long seed;
+
+    /**
+     * @param rounds   Number of rounds of a playout, must not be negative.
+     * @param playouts Number of playouts, must not be negative.
+     * @param seed     Seed of the random generator.
+     */
+    public SimulationConfig(int rounds, long playouts, long seed) {
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Number of rounds must not be negative, got " + rounds + ".");
+        }
+        if (playouts < 0) {
+            throw new IllegalArgumentException("Number of playouts must not be negative, got " + playouts + ".");
+        }
+        this.rounds = rounds;
+        this.playouts = playouts;
+        this.seed = seed;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationConfig{rounds=" + rounds + ", playouts=" + playouts + ", seed=" + seed + "}";
+    }
+}
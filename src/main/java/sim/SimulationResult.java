@@ -0,0 +1,133 @@
+package sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Statistics of a number of playouts. Every task of {@link Simulation} fills its own result, results are merged
+ * when tasks are joined, so no result is ever shared between threads.
+ */
+public class SimulationResult {
+    private long playouts;
+    private final long[] wins;
+    private final long[] money;
+    private long nanos;
+
+    /**
+     * @param players Number of players.
+     */
+    public SimulationResult(int players) {
+        this.wins = new long[players];
+        this.money = new long[players];
+    }
+
+    /**
+     * Records finished playout.
+     *
+     * @param winner     Index of the winning player.
+     * @param finalMoney Money of every player at the end of the playout.
+     */
+    void add(int winner, long[] finalMoney) {
+        playouts++;
+        wins[winner]++;
+        for (int i = 0; i < money.length; i++) {
+            money[i] += finalMoney[i];
+        }
+    }
+
+    /**
+     * Adds all playouts and the time of other result of the same game, as if both ran one after another. Time of
+     * results merged from parallel runs is their total time, not the wall clock time.
+     */
+    public void merge(SimulationResult other) {
+        if (other.wins.length != wins.length) {
+            throw new IllegalArgumentException("Results of " + other.wins.length + " and " + wins.length
+                    + " players cannot be merged.");
+        }
+        playouts += other.playouts;
+        nanos += other.nanos;
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+            money[i] += other.money[i];
+        }
+    }
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Writes the result in binary form, {@code 20 + 16 * players} bytes.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(wins.length);
+        out.writeLong(playouts);
+        out.writeLong(nanos);
+        for (int i = 0; i < wins.length; i++) {
+            out.writeLong(wins[i]);
+            out.writeLong(money[i]);
+        }
+    }
+
+    /**
+     * Reads result written by {@link #writeTo(DataOutput)}.
+     */
+    public static SimulationResult readFrom(DataInput in) throws IOException {
+        int players = in.readInt();
+        if (players < 0) {
+            throw new IOException("Invalid number of players " + players + ".");
+        }
+        SimulationResult result = new SimulationResult(players);
+        result.playouts = in.readLong();
+        result.nanos = in.readLong();
+        for (int i = 0; i < players; i++) {
+            result.wins[i] = in.readLong();
+            result.money[i] = in.readLong();
+        }
+        return result;
+    }
+
+    public int getPlayerCount() {
+        return wins.length;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * @return Number of playouts won by the player.
+     */
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    /**
+     * @return Share of playouts won by the player, 0 if there were no playouts.
+     */
+    public double getWinRate(int player) {
+        return playouts == 0 ? 0 : (double) wins[player] / playouts;
+    }
+
+    /**
+     * @return Average money of the player at the end of a playout, 0 if there were no playouts.
+     */
+    public double getMeanMoney(int player) {
+        return playouts == 0 ? 0 : (double) money[player] / playouts;
+    }
+
+    /**
+     * @return Wall clock time of the simulation in nanoseconds, summed over merged results.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return Throughput of the simulation.
+     */
+    public double getPlayoutsPerSecond() {
+        return nanos == 0 ? 0 : playouts * 1e9 / nanos;
+    }
+}
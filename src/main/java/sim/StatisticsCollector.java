@@ -0,0 +1,123 @@
+package sim;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects {@link PlayoutStatistics} of a simulation run, see {@link Simulation#setCollector(StatisticsCollector)}.
+ * Like {@link FieldCounters}, every task counts its playouts into statistics of its own without any synchronization
+ * and publishes them once when it finishes. Publishing never waits: published statistics are queued and merged into
+ * the total by whoever gets the merge lock without waiting, or by the next snapshot. A snapshot can be taken (and
+ * exported) at any time, also while the run is in progress.
+ */
+public class StatisticsCollector {
+    private final int players;
+    private final int fields;
+    /**
+     * Playouts of all merged statistics, guarded by {@link #merging}.
+     */
+    private final PlayoutStatistics total;
+    /**
+     * Published statistics not merged yet.
+     */
+    private final Queue<PlayoutStatistics> published = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock merging = new ReentrantLock();
+    private final LongAdder publications = new LongAdder();
+
+    /**
+     * @param players Number of players of the simulation.
+     * @param fields  Number of fields of the board.
+     */
+    public StatisticsCollector(int players, int fields) {
+        this.players = players;
+        this.fields = fields;
+        this.total = new PlayoutStatistics(players, fields);
+    }
+
+    /**
+     * @return Empty statistics for one task.
+     */
+    PlayoutStatistics newPartial() {
+        return new PlayoutStatistics(players, fields);
+    }
+
+    /**
+     * Adds statistics of a finished task, the task must not change them any more.
+     */
+    void publish(PlayoutStatistics partial) {
+        published.offer(partial);
+        publications.increment();
+        // a task never waits, if the lock is taken its statistics are merged by the holder or the next snapshot
+        if (merging.tryLock()) {
+            try {
+                mergePublished();
+            } finally {
+                merging.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return Statistics of all playouts published so far.
+     */
+    public PlayoutStatistics snapshot() {
+        merging.lock();
+        try {
+            mergePublished();
+            return total.copy();
+        } finally {
+            merging.unlock();
+        }
+    }
+
+    private void mergePublished() {
+        PlayoutStatistics partial;
+        while ((partial = published.poll()) != null) {
+            total.merge(partial);
+        }
+    }
+
+    /**
+     * @return Number of tasks that published their playouts.
+     */
+    public long getPublications() {
+        return publications.sum();
+    }
+
+    int getPlayerCount() {
+        return players;
+    }
+
+    int getFieldCount() {
+        return fields;
+    }
+
+    /**
+     * Writes snapshot to a file, as JSON if its name ends with {@code .json}, otherwise as CSV. The file is replaced
+     * atomically, so a reader never sees it half written.
+     *
+     * @param file      Target file.
+     * @param topFields Number of top fields to export.
+     */
+    public void export(Path file, int topFields) throws IOException {
+        PlayoutStatistics snapshot = snapshot();
+        String text = file.getFileName().toString().endsWith(".json") ? snapshot.toJson(topFields)
+                : snapshot.toCsv(topFields);
+        // a temporary file of its own, so concurrent exports to the same file do not write into each other's
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(tmp, text, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds line separators and structural delimiters of models in UTF-8 encoded bytes, 8 bytes per step.
+ * <p>
+ * Bytes are read as little endian longs and compared with all searched bytes at once (SWAR): for word {@code w} and
+ * byte {@code c} repeated in every byte of {@code p}, {@code (w ^ p) - 0x01..01 & ~(w ^ p) & 0x80..80} has the high
+ * bit set in the lowest byte equal to {@code c}. Higher bytes may be marked falsely, so only the lowest mark is used.
+ * Bytes of multibyte characters are all negative, so they never match an ASCII delimiter.
+ * <p>
+ * Scanning allocates nothing. Words of a big endian buffer (the default order) are byte swapped on every step,
+ * callers scanning the same input many times should take its {@link #littleEndian(ByteBuffer)} view once.
+ */
+public final class ByteScanner {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long CR = ONES * '\r';
+    private static final long LF = ONES * '\n';
+    private static final long LEFTCB = ONES * '{';
+    private static final long RIGHTCB = ONES * '}';
+    private static final long LPAREN = ONES * '(';
+    private static final long RPAREN = ONES * ')';
+    private static final long QUOTE = ONES * '"';
+    private static final long SLASH = ONES * '/';
+
+    private ByteScanner() {
+    }
+
+    /**
+     * Finds first CR or LF.
+     *
+     * @param src  Bytes to search.
+     * @param from First index to search.
+     * @param to   Index after the last byte to search.
+     * @return Index of the first CR or LF in [from, to), -1 if there is none.
+     */
+    public static int indexOfNewLine(ByteBuffer src, int from, int to) {
+        boolean swap = src.order() != ByteOrder.LITTLE_ENDIAN;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long w = swap ? Long.reverseBytes(src.getLong(i)) : src.getLong(i);
+            long found = match(w, CR) | match(w, LF);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            byte b = src.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as {@link #indexOfNewLine(ByteBuffer, int, int)} for an array.
+     */
+    public static int indexOfNewLine(byte[] src, int from, int to) {
+        return indexOfNewLine(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN), from, to);
+    }
+
+    /**
+     * Finds first structural delimiter: '{', '}', '(', ')', '"', '/', CR or LF.
+     *
+     * @param src  Bytes to search.
+     * @param from First index to search.
+     * @param to   Index after the last byte to search.
+     * @return Index of the first delimiter in [from, to), -1 if there is none.
+     */
+    public static int indexOfDelimiter(ByteBuffer src, int from, int to) {
+        boolean swap = src.order() != ByteOrder.LITTLE_ENDIAN;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long w = swap ? Long.reverseBytes(src.getLong(i)) : src.getLong(i);
+            long found = match(w, CR) | match(w, LF) | match(w, LEFTCB) | match(w, RIGHTCB)
+                    | match(w, LPAREN) | match(w, RPAREN) | match(w, QUOTE) | match(w, SLASH);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (isDelimiter(src.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as {@link #indexOfDelimiter(ByteBuffer, int, int)} for an array.
+     */
+    public static int indexOfDelimiter(byte[] src, int from, int to) {
+        return indexOfDelimiter(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN), from, to);
+    }
+
+    /**
+     * @return True for bytes found by {@link #indexOfDelimiter(ByteBuffer, int, int)}.
+     */
+    public static boolean isDelimiter(byte b) {
+        return switch (b) {
+            case '{', '}', '(', ')', '"', '/', '\r', '\n' -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return High bit set in bytes of word equal to the byte repeated in pattern, exact for the lowest one.
+     */
+    private static long match(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    /**
+     * @return The buffer if it is little endian, otherwise its little endian view sharing the content.
+     */
+    public static ByteBuffer littleEndian(ByteBuffer src) {
+        return src.order() == ByteOrder.LITTLE_ENDIAN ? src : src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
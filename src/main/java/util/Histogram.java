@@ -0,0 +1,137 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of longs with log-linear buckets (as in HDR histograms): values below {@link #SUB_BUCKETS} have their
+ * own bucket, every higher power of two is split into {@link #SUB_BUCKETS} equal buckets. So percentiles are exact
+ * for small values and within 1/{@link #SUB_BUCKETS} of the value otherwise, and the whole range of long needs less
+ * than 2000 buckets. Negative values {@code v} are counted in a mirrored set of buckets by {@code -v - 1}, which is
+ * allocated only once a negative value is seen. Buckets are allocated up to the highest magnitude seen.
+ * Histograms are merged by adding buckets. A single instance is not thread safe.
+ */
+public class Histogram {
+    public static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private long[] counts = new long[SUB_BUCKETS];
+    /**
+     * Counts of negative values by bucket of {@code -value - 1}, empty until a negative value is added.
+     */
+    private long[] negativeCounts = new long[0];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public void add(long value) {
+        if (value >= 0) {
+            counts = increment(counts, bucketOf(value));
+        } else {
+            // ~value is -value - 1, it does not overflow for Long.MIN_VALUE
+            negativeCounts = increment(negativeCounts, bucketOf(~value));
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of other histogram.
+     */
+    public void merge(Histogram other) {
+        counts = add(counts, other.counts);
+        negativeCounts = add(negativeCounts, other.negativeCounts);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return Independent copy.
+     */
+    public Histogram copy() {
+        Histogram copy = new Histogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Lowest value, -1 without values (use {@link #getCount()} to tell it from a value).
+     */
+    public long getMin() {
+        return count == 0 ? -1 : min;
+    }
+
+    /**
+     * @return Highest value, -1 without values (use {@link #getCount()} to tell it from a value).
+     */
+    public long getMax() {
+        return count == 0 ? -1 : max;
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return Lowest value of the bucket holding the value at the percentile (nearest rank), -1 without values.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        // the most negative values are in the highest negative buckets
+        for (int i = negativeCounts.length - 1; i >= 0; i--) {
+            seen += negativeCounts[i];
+            if (seen >= rank) {
+                // lowest value of the bucket is the mirror of its highest magnitude, the next bucket's lowest - 1
+                return Math.max(~(lowestValue(i + 1) - 1), min);
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static long[] increment(long[] counts, int bucket) {
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+        }
+        counts[bucket]++;
+        return counts;
+    }
+
+    private static long[] add(long[] counts, long[] other) {
+        if (other.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.length);
+        }
+        for (int i = 0; i < other.length; i++) {
+            counts[i] += other[i];
+        }
+        return counts;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+}
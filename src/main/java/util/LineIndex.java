@@ -0,0 +1,133 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Offsets of lines of a text, for chunking the text at line boundaries and for turning offsets into line and column.
+ * Lines are separated by CR, LF or CR LF (any separator {@link LineSeparator} accepts when not OS dependent).
+ * A text always has at least one line, the last line is the rest after the last separator and may be empty.
+ * Lines and columns are counted from 0.
+ */
+public final class LineIndex {
+    private final int[] starts;
+    private final int lineCount;
+    private final int end;
+
+    private LineIndex(int[] starts, int lineCount, int end) {
+        this.starts = starts;
+        this.lineCount = lineCount;
+        this.end = end;
+    }
+
+    /**
+     * Indexes bytes between position and limit of the buffer, using {@link ByteScanner}.
+     * Offsets are indexes of the buffer.
+     *
+     * @param src UTF-8 encoded text.
+     * @return Index of its lines.
+     */
+    public static LineIndex of(ByteBuffer src) {
+        int end = src.limit();
+        int[] starts = new int[64];
+        int count = 0;
+        starts[count++] = src.position();
+        // one view for all lines
+        src = ByteScanner.littleEndian(src);
+        int i = ByteScanner.indexOfNewLine(src, src.position(), end);
+        while (i >= 0) {
+            // CR LF is a single separator
+            if (src.get(i) == '\r' && i + 1 < end && src.get(i + 1) == '\n') {
+                i++;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = i + 1;
+            i = ByteScanner.indexOfNewLine(src, i + 1, end);
+        }
+        return new LineIndex(starts, count, end);
+    }
+
+    /**
+     * @param src UTF-8 encoded text.
+     * @return Index of its lines.
+     */
+    public static LineIndex of(byte[] src) {
+        return of(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * @param src Text.
+     * @return Index of its lines, offsets are indexes of chars.
+     */
+    public static LineIndex of(char[] src) {
+        int[] starts = new int[64];
+        int count = 0;
+        starts[count++] = 0;
+        for (int i = 0; i < src.length; i++) {
+            char c = src[i];
+            if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < src.length && src[i + 1] == '\n') {
+                    i++;
+                }
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return new LineIndex(starts, count, src.length);
+    }
+
+    /**
+     * @return Number of lines, at least 1.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return Offset of the first character of the line.
+     */
+    public int getLineStart(int line) {
+        checkLine(line);
+        return starts[line];
+    }
+
+    /**
+     * @return Offset after the line including its separator, i.e. start of the next line or end of the text.
+     */
+    public int getLineEnd(int line) {
+        checkLine(line);
+        return line + 1 < lineCount ? starts[line + 1] : end;
+    }
+
+    /**
+     * @param offset Offset in the text, the end of the text belongs to the last line.
+     * @return Line containing the offset.
+     */
+    public int lineOf(int offset) {
+        if (offset < starts[0] || offset > end) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " out of bounds for text ["
+                    + starts[0] + ", " + end + "].");
+        }
+        int line = Arrays.binarySearch(starts, 0, lineCount, offset);
+        // not found gives -(insertion point) - 1, the line is the one before the insertion point
+        return line >= 0 ? line : -line - 2;
+    }
+
+    /**
+     * @return Column of the offset in its line, in bytes (chars for index of chars).
+     */
+    public int columnOf(int offset) {
+        return offset - starts[lineOf(offset)];
+    }
+
+    private void checkLine(int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " out of bounds for length " + lineCount + ".");
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.io.IOException;
 import java.io.PushbackReader;
 
 public class LineSeparator {
+    private static final String SYSTEM = System.lineSeparator();
+
     /**
      * Checks if given string is valid line separator.
      *
@@ -15,9 +17,9 @@ public class LineSeparator {
      */
     public static boolean isNewLine(String n, boolean osDependent) {
         if (osDependent) {
-            return n.equals("\r") || n.equals("\r\n") || n.equals("\n");
+            return SYSTEM.equals(n);
         } else {
-            return System.lineSeparator().equals(n);
+            return n.equals("\r") || n.equals("\r\n") || n.equals("\n");
         }
     }
 
@@ -32,7 +34,7 @@ public class LineSeparator {
     public static boolean isNewLine(@NotNull PushbackReader fr, boolean osDependent) throws IOException {
         int c = fr.read();
         if (osDependent) {
-            String separator = System.lineSeparator();
+            String separator = SYSTEM;
             if (separator.length() != 1) {
                 if (c == '\r') {
                     c = fr.read();
@@ -45,19 +47,19 @@ public class LineSeparator {
                     return true;
                 }
             }
-            fr.unread(c);
+            unread(c, fr);
             return false;
         } else {
             if (c == '\r') {
                 c = fr.read();
                 if (c != '\n') {
-                    fr.unread(c);
+                    unread(c, fr);
                 }
                 return true;
             } else if (c == '\n') {
                 return true;
             } else {
-                fr.unread(c);
+                unread(c, fr);
                 return false;
             }
         }
@@ -74,14 +76,14 @@ public class LineSeparator {
      */
     public static boolean isNewLine(int c1, @NotNull PushbackReader fr, boolean osDependent) throws IOException {
         if (osDependent) {
-            String separator = System.lineSeparator();
+            String separator = SYSTEM;
             if (separator.length() != 1) {
                 if (c1 == '\r') {
                     int c = fr.read();
                     if (c == '\n') {
                         return true;
                     }
-                    fr.unread(c);
+                    unread(c, fr);
                 }
             } else {
                 return separator.equals(Character.toString(c1));
@@ -93,10 +95,20 @@ public class LineSeparator {
         if (c1 == '\r') {
             int c = fr.read();
             if (c != '\n') {
-                fr.unread(c);
+                unread(c, fr);
             }
             return true;
         }
         return c1 == '\n';
     }
+
+    /**
+     * Pushes character back to the stream. End of stream (-1) is not a character and is never pushed back,
+     * otherwise it would be read again as '\uFFFF'.
+     */
+    private static void unread(int c, PushbackReader fr) throws IOException {
+        if (c != -1) {
+            fr.unread(c);
+        }
+    }
 }
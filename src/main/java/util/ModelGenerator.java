@@ -0,0 +1,193 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates valid synthetic model files: one {@code board} block followed by {@code player} blocks.
+ * The output only depends on the seed and the settings, so a corpus can be generated again instead of stored.
+ * <p>
+ * Settings control the shape of the model: board dimensions, ratio of empty fields, number of players and their
+ * extra properties, density of comments, line separator and length of strings (strings also contain multibyte
+ * characters). The first cell of the board is always a numbered field, so every board can be simulated.
+ */
+public class ModelGenerator {
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789čřžýáíé";
+
+    private final long seed;
+    private int rows = 3;
+    private int columns = 3;
+    private double emptyRatio = 0.25;
+    private int players = 2;
+    private int properties = 1;
+    private double commentDensity = 0.1;
+    private String lineSeparator = "\n";
+    private int stringLength = 8;
+
+    /**
+     * @param seed Seed of the random generator.
+     */
+    public ModelGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param rows    Number of rows of the board, at least 1.
+     * @param columns Number of cells in every row, at least 1.
+     */
+    public void setBoardSize(int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Board must have at least one cell, got " + rows + "x" + columns + ".");
+        }
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * @param emptyRatio Probability of a cell being empty, between 0 and 1.
+     */
+    public void setEmptyRatio(double emptyRatio) {
+        if (!(emptyRatio >= 0 && emptyRatio <= 1)) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1, got " + emptyRatio + ".");
+        }
+        this.emptyRatio = emptyRatio;
+    }
+
+    /**
+     * @param players    Number of player blocks.
+     * @param properties Number of extra properties of every player (integers, booleans and strings in turns).
+     */
+    public void setPlayers(int players, int properties) {
+        if (players < 0 || properties < 0) {
+            throw new IllegalArgumentException("Counts must not be negative, got " + players + " and "
+                    + properties + ".");
+        }
+        this.players = players;
+        this.properties = properties;
+    }
+
+    /**
+     * @param commentDensity Probability of a line ending with a comment, between 0 and 1.
+     */
+    public void setCommentDensity(double commentDensity) {
+        if (!(commentDensity >= 0 && commentDensity <= 1)) {
+            throw new IllegalArgumentException("Density must be between 0 and 1, got " + commentDensity + ".");
+        }
+        this.commentDensity = commentDensity;
+    }
+
+    /**
+     * @param lineSeparator CR, LF or CR LF.
+     */
+    public void setLineSeparator(String lineSeparator) {
+        if (!LineSeparator.isNewLine(lineSeparator, false)) {
+            throw new IllegalArgumentException("Invalid line separator.");
+        }
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * @param stringLength Number of characters of player names, string properties and comments, at least 1.
+     */
+    public void setStringLength(int stringLength) {
+        if (stringLength < 1) {
+            throw new IllegalArgumentException("String length must be positive, got " + stringLength + ".");
+        }
+        this.stringLength = stringLength;
+    }
+
+    /**
+     * @return Number of numbered fields the generated board has.
+     */
+    public int getFieldCount() {
+        SplittableRandom random = new SplittableRandom(seed);
+        int fields = 0;
+        for (int i = 0; i < rows * columns; i++) {
+            if (!isEmpty(random, i)) {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return UTF-8 encoded model.
+     */
+    public byte[] generate() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder line = new StringBuilder();
+        // cells use their own generator, so getFieldCount() does not depend on other settings
+        SplittableRandom cells = new SplittableRandom(seed);
+        SplittableRandom random = new SplittableRandom(seed).split();
+        int id = 1;
+        writeLine(out, line.append("board {"), random);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (c > 0) {
+                    line.append(' ');
+                }
+                if (isEmpty(cells, r * columns + c)) {
+                    line.append("(x)");
+                } else {
+                    line.append('(').append(id++).append(')');
+                }
+            }
+            writeLine(out, line, random);
+        }
+        writeLine(out, line.append('}'), random);
+        for (int p = 0; p < players; p++) {
+            writeLine(out, line.append("player {"), random);
+            writeLine(out, line.append("name = \"").append(p + 1).append(' ').append(string(random)).append("\","),
+                    random);
+            writeLine(out, line.append("income = ").append(random.nextInt(1, 100000)).append(','), random);
+            for (int i = 0; i < properties; i++) {
+                line.append("property").append(i + 1).append(" = ");
+                switch (i % 3) {
+                    case 0 -> line.append(random.nextInt(1, Integer.MAX_VALUE));
+                    case 1 -> line.append(random.nextBoolean());
+                    default -> line.append('"').append(string(random)).append('"');
+                }
+                writeLine(out, line.append(','), random);
+            }
+            writeLine(out, line.append('}'), random);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes generated model to a file.
+     */
+    public void write(Path file) throws IOException {
+        Files.write(file, generate());
+    }
+
+    private boolean isEmpty(SplittableRandom random, int cell) {
+        // draw for every cell, so the sequence does not depend on the first one
+        boolean empty = random.nextDouble() < emptyRatio;
+        return empty && cell > 0;
+    }
+
+    private String string(SplittableRandom random) {
+        StringBuilder sb = new StringBuilder(stringLength);
+        for (int i = 0; i < stringLength; i++) {
+            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the line, possibly with a comment, and clears it.
+     */
+    private void writeLine(ByteArrayOutputStream out, StringBuilder line, SplittableRandom random) {
+        if (commentDensity > 0 && random.nextDouble() < commentDensity) {
+            line.append(" // ").append(string(random));
+        }
+        line.append(lineSeparator);
+        out.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,138 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Array of fixed size elements stored outside of the Java heap, in direct buffers or in a memory mapped file.
+ * A buffer holds at most 2 GB, so the array is split into segments of {@link #SEGMENT_BYTES} and can be longer than
+ * {@link Integer#MAX_VALUE} elements. Elements are in native byte order and never cross a segment.
+ */
+abstract class OffHeapArray {
+    /**
+     * Size of a full segment is a power of two, so the segment of an element is a shift of its offset.
+     */
+    static final int SEGMENT_SHIFT = 30;
+    static final int SEGMENT_BYTES = 1 << SEGMENT_SHIFT;
+
+    private final ByteBuffer[] segments;
+    private final long length;
+    private final int elementShift;
+
+    /**
+     * Allocates zeroed array in direct buffers.
+     *
+     * @param length       Number of elements.
+     * @param elementShift Log2 of the size of an element in bytes.
+     */
+    OffHeapArray(long length, int elementShift) {
+        this.length = checkLength(length, elementShift);
+        this.elementShift = elementShift;
+        this.segments = new ByteBuffer[segmentCount(length, elementShift)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentBytes(i)).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Maps array to a file, the file is created or extended (with zeros) if it is shorter.
+     *
+     * @param file         File holding the elements.
+     * @param length       Number of elements.
+     * @param elementShift Log2 of the size of an element in bytes.
+     */
+    OffHeapArray(Path file, long length, int elementShift) throws IOException {
+        this.length = checkLength(length, elementShift);
+        this.elementShift = elementShift;
+        this.segments = new ByteBuffer[segmentCount(length, elementShift)];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            for (int i = 0; i < segments.length; i++) {
+                // mapping stays valid after the channel is closed
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * SEGMENT_BYTES, segmentBytes(i))
+                        .order(ByteOrder.nativeOrder());
+            }
+        }
+    }
+
+    /**
+     * @return Number of elements.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return Number of segments (buffers) of the array.
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return Index of the first element of the segment.
+     */
+    public long getSegmentStart(int segment) {
+        return ((long) segment << SEGMENT_SHIFT) >>> elementShift;
+    }
+
+    /**
+     * Gives access to elements without copying, for example to write them to a channel after a simulation.
+     *
+     * @return Read only view of the segment in native byte order, it starts with element
+     * {@link #getSegmentStart(int)}.
+     */
+    public ByteBuffer getSegment(int segment) {
+        return segments[segment].asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes changes of a file mapped array to the file, does nothing for other arrays.
+     */
+    public void force() {
+        for (ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer mapped) {
+                mapped.force();
+            }
+        }
+    }
+
+    /**
+     * @return Segment holding the element.
+     */
+    final ByteBuffer segment(long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length + ".");
+        }
+        return segments[(int) ((index << elementShift) >>> SEGMENT_SHIFT)];
+    }
+
+    /**
+     * @return Offset of the element in its segment.
+     */
+    final int offset(long index) {
+        return (int) (index << elementShift) & (SEGMENT_BYTES - 1);
+    }
+
+    private int segmentBytes(int segment) {
+        long bytes = (length << elementShift) - (long) segment * SEGMENT_BYTES;
+        return (int) Math.min(bytes, SEGMENT_BYTES);
+    }
+
+    private static long checkLength(long length, int elementShift) {
+        if (length < 0 || length > (Long.MAX_VALUE >>> elementShift)) {
+            throw new IllegalArgumentException("Invalid length " + length + ".");
+        }
+        return length;
+    }
+
+    private static int segmentCount(long length, int elementShift) {
+        long bytes = length << elementShift;
+        return (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+    }
+}
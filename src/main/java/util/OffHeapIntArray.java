@@ -0,0 +1,75 @@
+package util;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Off-heap array of ints with atomic updates, for board cells and per-field state shared by parallel simulation
+ * tasks.
+ * Plain {@link #get(long)} and {@link #set(long, int)} have no ordering guarantees, use them before tasks are
+ * started or after they are joined. All other operations are atomic and lock-free.
+ */
+public final class OffHeapIntArray extends OffHeapArray {
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class,
+            ByteOrder.nativeOrder());
+
+    private OffHeapIntArray(long length) {
+        super(length, 2);
+    }
+
+    private OffHeapIntArray(Path file, long length) throws IOException {
+        super(file, length, 2);
+    }
+
+    /**
+     * @param length Number of elements.
+     * @return Array of zeros in direct memory.
+     */
+    public static OffHeapIntArray allocate(long length) {
+        return new OffHeapIntArray(length);
+    }
+
+    /**
+     * Maps array to a file, elements already in the file are kept, the rest is zero.
+     *
+     * @param file   File holding the elements in native byte order.
+     * @param length Number of elements.
+     * @return Array backed by the file.
+     */
+    public static OffHeapIntArray map(Path file, long length) throws IOException {
+        return new OffHeapIntArray(file, length);
+    }
+
+    public int get(long index) {
+        return (int) INTS.get(segment(index), offset(index));
+    }
+
+    public void set(long index, int value) {
+        INTS.set(segment(index), offset(index), value);
+    }
+
+    public int getVolatile(long index) {
+        return (int) INTS.getVolatile(segment(index), offset(index));
+    }
+
+    /**
+     * Atomically adds to the element.
+     *
+     * @return New value of the element.
+     */
+    public int add(long index, int delta) {
+        return (int) INTS.getAndAdd(segment(index), offset(index), delta) + delta;
+    }
+
+    /**
+     * Atomically sets the element if it has expected value.
+     *
+     * @return True if the element was set.
+     */
+    public boolean compareAndSet(long index, int expected, int value) {
+        return INTS.compareAndSet(segment(index), offset(index), expected, value);
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Off-heap array of longs with atomic updates, for counters shared by parallel simulation tasks.
+ * Plain {@link #get(long)} and {@link #set(long, long)} have no ordering guarantees, use them before tasks are
+ * started or after they are joined. All other operations are atomic and lock-free.
+ */
+public final class OffHeapLongArray extends OffHeapArray {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    private OffHeapLongArray(long length) {
+        super(length, 3);
+    }
+
+    private OffHeapLongArray(Path file, long length) throws IOException {
+        super(file, length, 3);
+    }
+
+    /**
+     * @param length Number of elements.
+     * @return Array of zeros in direct memory.
+     */
+    public static OffHeapLongArray allocate(long length) {
+        return new OffHeapLongArray(length);
+    }
+
+    /**
+     * Maps array to a file, elements already in the file are kept, the rest is zero.
+     *
+     * @param file   File holding the elements in native byte order.
+     * @param length Number of elements.
+     * @return Array backed by the file.
+     */
+    public static OffHeapLongArray map(Path file, long length) throws IOException {
+        return new OffHeapLongArray(file, length);
+    }
+
+    public long get(long index) {
+        return (long) LONGS.get(segment(index), offset(index));
+    }
+
+    public void set(long index, long value) {
+        LONGS.set(segment(index), offset(index), value);
+    }
+
+    public long getVolatile(long index) {
+        return (long) LONGS.getVolatile(segment(index), offset(index));
+    }
+
+    /**
+     * Atomically adds to the element.
+     *
+     * @return New value of the element.
+     */
+    public long add(long index, long delta) {
+        return (long) LONGS.getAndAdd(segment(index), offset(index), delta) + delta;
+    }
+
+    /**
+     * Atomically sets the element if it has expected value.
+     *
+     * @return True if the element was set.
+     */
+    public boolean compareAndSet(long index, long expected, long value) {
+        return LONGS.compareAndSet(segment(index), offset(index), expected, value);
+    }
+}
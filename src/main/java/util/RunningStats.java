@@ -0,0 +1,93 @@
+package util;
+
+/**
+ * Count, mean, variance, minimum and maximum of a stream of values in constant memory (Welford's algorithm).
+ * Statistics of parts of a stream are merged exactly (Chan's formula), so every thread can fill its own instance.
+ * A single instance is not thread safe.
+ */
+public class RunningStats {
+    private long count;
+    private double mean;
+    /**
+     * Sum of squared differences from the mean.
+     */
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of other statistics.
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return Independent copy.
+     */
+    public RunningStats copy() {
+        RunningStats copy = new RunningStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Mean, 0 without values.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return Sample variance, 0 for less than two values.
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return Minimum, NaN without values.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return Maximum, NaN without values.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    @Override
+    public String toString() {
+        return "RunningStats{count=" + count + ", mean=" + mean + ", variance=" + getVariance() + ", min="
+                + getMin() + ", max=" + getMax() + "}";
+    }
+}
@@ -0,0 +1,170 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size array of ints that can be forked in constant time. Forks share structure: values are kept in a tree
+ * of 32-wide nodes and a write copies only the nodes on its path that are shared with another fork, so a fork costs
+ * O(changed values) instead of O(size). Repeated writes to nodes already copied by the same fork copy nothing.
+ * <p>
+ * Writes to one fork are never visible in another. A single fork is not thread safe, different forks can be used on
+ * different threads once handed over safely.
+ */
+public final class SharedIntArray {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private final int size;
+    /**
+     * Shift of the index for the root level, 0 if the root is a leaf.
+     */
+    private final int shift;
+    private Node root;
+    /**
+     * Nodes created by this fork, only those may be modified in place.
+     */
+    private Object owner;
+
+    private static final class Node {
+        final Object owner;
+        final Node[] children;
+        final int[] values;
+
+        Node(Object owner, Node[] children, int[] values) {
+            this.owner = owner;
+            this.children = children;
+            this.values = values;
+        }
+
+        Node copy(Object owner) {
+            return new Node(owner, children == null ? null : children.clone(), values == null ? null : values.clone());
+        }
+    }
+
+    /**
+     * Creates array filled with one value. Until written, all leaves share one node.
+     *
+     * @param size  Length of the array.
+     * @param value Initial value of every element.
+     */
+    public SharedIntArray(int size, int value) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative, got " + size + ".");
+        }
+        this.size = size;
+        this.shift = shiftFor(size);
+        this.owner = new Object();
+        int[] values = new int[WIDTH];
+        Arrays.fill(values, value);
+        // no fork owns the shared nodes, so every first write copies them
+        Node node = new Node(null, null, values);
+        for (int s = BITS; s <= shift; s += BITS) {
+            Node[] children = new Node[WIDTH];
+            Arrays.fill(children, node);
+            node = new Node(null, children, null);
+        }
+        this.root = node;
+    }
+
+    /**
+     * Creates array with copy of given values.
+     *
+     * @param values Initial values.
+     */
+    public SharedIntArray(int[] values) {
+        this(values.length, 0);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                set(i, values[i]);
+            }
+        }
+    }
+
+    private SharedIntArray(SharedIntArray other) {
+        this.size = other.size;
+        this.shift = other.shift;
+        this.root = other.root;
+        this.owner = new Object();
+    }
+
+    /**
+     * Creates independent copy sharing all nodes with this array. Constant time.
+     *
+     * @return The copy.
+     */
+    public SharedIntArray fork() {
+        // nodes owned so far are shared from now on, this array must copy them too
+        owner = new Object();
+        return new SharedIntArray(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int i) {
+        checkIndex(i);
+        Node node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            node = node.children[(i >>> s) & MASK];
+        }
+        return node.values[i & MASK];
+    }
+
+    public void set(int i, int value) {
+        checkIndex(i);
+        if (root.owner != owner) {
+            root = root.copy(owner);
+        }
+        Node node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            int index = (i >>> s) & MASK;
+            Node child = node.children[index];
+            if (child.owner != owner) {
+                child = child.copy(owner);
+                node.children[index] = child;
+            }
+            node = child;
+        }
+        node.values[i & MASK] = value;
+    }
+
+    /**
+     * Adds to element.
+     *
+     * @return New value of the element.
+     */
+    public int add(int i, int delta) {
+        int value = get(i) + delta;
+        set(i, value);
+        return value;
+    }
+
+    /**
+     * @return Copy of all values.
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size + ".");
+        }
+    }
+
+    private static int shiftFor(int size) {
+        int shift = 0;
+        long capacity = WIDTH;
+        while (capacity < size) {
+            shift += BITS;
+            capacity <<= BITS;
+        }
+        return shift;
+    }
+}
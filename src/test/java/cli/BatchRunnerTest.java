@@ -0,0 +1,113 @@
+package cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    private String pathToResources = "./src/test/resources/";
+    @TempDir
+    Path tmp;
+
+    private static String model(int seed) {
+        return "board {\n(1) (2) (3)\n(4) (5) (6)\n}\n"
+                + "player { name = \"A\", income = 10 }\n"
+                + "player { name = \"B\", income = 10, isGOOD = true }\n"
+                + "simulation { rounds = 10, playouts = 2000, seed = " + seed + " }\n";
+    }
+
+    @Test
+    void directoryTest() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Files.writeString(tmp.resolve("model" + i + ".txt"), model(i));
+        }
+        Files.writeString(tmp.resolve("broken.txt"), "board {\n(1)\n}\nplayer { name = \"A\" }\n");
+        Files.writeString(tmp.resolve("ignored.dat"), "x");
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = new BatchRunner(2, out).run(BatchRunner.listDirectory(tmp, "*.txt"));
+        assertEquals(6, summary.getFiles());
+        assertEquals(1, summary.getFailed());
+        assertEquals(5 * 2000, summary.getPlayouts());
+        assertTrue(summary.getTokens() > 0);
+        assertTrue(summary.getLatency(50) <= summary.getLatency(99));
+        assertTrue(summary.toString().contains("files: 6 (1 failed)"));
+
+        List<String> lines = out.toString().lines().sorted().collect(Collectors.toList());
+        assertEquals(6, lines.size());
+        String[] broken = lines.get(0).split("\t");
+        assertEquals(tmp.resolve("broken.txt").toString(), broken[0]);
+        assertEquals("failed", broken[1]);
+        assertEquals("Player 'A' must have integer property 'income'.", broken[5]);
+        String[] ok = lines.get(1).split("\t");
+        assertEquals("ok", ok[1]);
+        assertEquals("2000", ok[3]);
+        assertTrue(ok[5].matches("A=0\\.\\d{4} B=0\\.\\d{4}"));
+    }
+
+    @Test
+    void manifestTest() throws Exception {
+        Files.createDirectory(tmp.resolve("models"));
+        Files.writeString(tmp.resolve("models/a.txt"), model(1));
+        Files.writeString(tmp.resolve("models/b.txt"), "board {\n(1)\n}\nplayer { name = \"A\", income = 1 }\n");
+        Files.writeString(tmp.resolve("manifest"), "// models\nmodels/a.txt\n\n  models/b.txt\n");
+        List<Path> files = BatchRunner.readManifest(tmp.resolve("manifest"));
+        assertEquals(2, files.size());
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = new BatchRunner(1, out).run(files);
+        assertEquals(0, summary.getFailed());
+        // the second model has no simulation block, so it runs with default config
+        assertEquals(2000 + 10000, summary.getPlayouts());
+        assertEquals(0, new BatchRunner(1, out).run(List.of()).getLatency(99));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0, out));
+    }
+
+    @Test
+    void executorTest() throws Exception {
+        ExecutorService executor = BatchRunner.newExecutor(2);
+        try {
+            assertEquals(4, executor.submit(() -> 2 + 2).get());
+        } finally {
+            executor.shutdown();
+        }
+        Path player = Path.of(pathToResources + "model_player.txt");
+        BatchRunner.Summary summary = new BatchRunner(1, new StringWriter()).run(List.of(player));
+        // a model without board fails
+        assertEquals(1, summary.getFailed());
+    }
+
+    @Test
+    void writeFailureTest() throws Exception {
+        Files.writeString(tmp.resolve("a.txt"), model(1));
+        Files.writeString(tmp.resolve("broken.txt"), "board {\n(1)\n}\nplayer { name = \"A\" }\n");
+        Writer closed = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        BatchRunner.Summary summary = new BatchRunner(2, closed).run(BatchRunner.listDirectory(tmp, "*.txt"));
+        // both jobs are counted and timed even though no result line was written
+        assertEquals(2, summary.getFailed());
+        assertEquals(2000, summary.getPlayouts());
+        assertTrue(summary.getLatency(50) > 0);
+    }
+}
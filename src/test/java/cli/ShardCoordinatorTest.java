@@ -0,0 +1,197 @@
+package cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sim.Simulation;
+import sim.SimulationResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+
+    @TempDir
+    Path tmp;
+
+    private Path model(String name, int income) throws Exception {
+        Path file = tmp.resolve(name);
+        Files.writeString(file, "board {\n(1) (2) (3)\n(4) (5) (6)\n}\n"
+                + "player { name = \"A\", income = " + income + " }\n"
+                + "player { name = \"B\", income = 10, isGOOD = true }\n"
+                + "simulation { rounds = 10, playouts = 500 }\n");
+        return file;
+    }
+
+    /**
+     * Result of the seeds computed in this JVM.
+     */
+    private static SimulationResult expected(Path file, long firstSeed, int seeds) throws Exception {
+        GameModel model = GameModel.load(file, null);
+        Simulation simulation = model.newSimulation();
+        SimulationResult result = simulation.run(model.getConfig().getPlayouts(), firstSeed);
+        for (int i = 1; i < seeds; i++) {
+            result.merge(simulation.run(model.getConfig().getPlayouts(), firstSeed + i));
+        }
+        return result;
+    }
+
+    private static void assertSameResult(SimulationResult expected, SimulationResult actual) {
+        assertEquals(expected.getPlayerCount(), actual.getPlayerCount());
+        assertEquals(expected.getPlayouts(), actual.getPlayouts());
+        for (int i = 0; i < expected.getPlayerCount(); i++) {
+            assertEquals(expected.getWins(i), actual.getWins(i));
+            assertEquals(expected.getMeanMoney(i), actual.getMeanMoney(i));
+        }
+    }
+
+    @Test
+    void planTest() {
+        List<Shard> shards = ShardCoordinator.plan(List.of(Path.of("a.txt"), Path.of("b.txt")), 10, 7, 3);
+        assertEquals(6, shards.size());
+        assertEquals(Path.of("a.txt").toAbsolutePath(), shards.get(0).getFile());
+        assertEquals(10, shards.get(0).getFirstSeed());
+        assertEquals(3, shards.get(0).getSeedCount());
+        assertEquals(16, shards.get(2).getFirstSeed());
+        assertEquals(1, shards.get(2).getSeedCount());
+        assertEquals(Path.of("b.txt").toAbsolutePath(), shards.get(3).getFile());
+        assertEquals(10, shards.get(3).getFirstSeed());
+        assertThrows(IllegalArgumentException.class, () -> ShardCoordinator.plan(List.of(), 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Shard(Path.of("a.txt"), 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardCoordinator(0));
+    }
+
+    @Test
+    void commandTest() {
+        // 8 cores and 16 GiB shared by 4 workers
+        List<String> command = ShardCoordinator.command(4, 8, 16L << 30);
+        assertTrue(command.contains("-Djava.util.concurrent.ForkJoinPool.common.parallelism=2"), command.toString());
+        assertTrue(command.contains("-Xmx2048m"), command.toString());
+        assertEquals(ShardWorker.class.getName(), command.get(command.size() - 1));
+        // more workers than cores still get a thread each, small machines a minimal heap
+        command = ShardCoordinator.command(4, 2, 1L << 30);
+        assertTrue(command.contains("-Djava.util.concurrent.ForkJoinPool.common.parallelism=1"), command.toString());
+        assertTrue(command.contains("-Xmx256m"), command.toString());
+        assertTrue(ShardCoordinator.command(1, 1, 0).stream().noneMatch(arg -> arg.startsWith("-Xmx")));
+    }
+
+    @Test
+    void serveTest() throws Exception {
+        Path file = model("a.txt", 10);
+        ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(requests);
+        out.writeByte(ShardWorker.SHARD);
+        new Shard(file, 1, 2).writeTo(out);
+        out.writeByte(ShardWorker.SHARD);
+        new Shard(tmp.resolve("missing.txt"), 1, 1).writeTo(out);
+        out.writeByte(ShardWorker.SHARD);
+        new Shard(file, 3, 1).writeTo(out);
+        out.writeByte(ShardWorker.SHUTDOWN);
+        // never read
+        out.writeByte(ShardWorker.SHARD);
+
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        new ShardWorker().serve(new ByteArrayInputStream(requests.toByteArray()), responses);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(responses.toByteArray()));
+        assertEquals(ShardWorker.OK, in.readByte());
+        SimulationResult shard = SimulationResult.readFrom(in);
+        assertSameResult(expected(file, 1, 2), shard);
+        // time of both seeds, not just of the first one
+        assertTrue(shard.getNanos() > 0);
+        assertEquals(shard.getPlayouts() * 1e9 / shard.getNanos(), shard.getPlayoutsPerSecond(), 1e-6);
+        assertEquals(ShardWorker.FAILED, in.readByte());
+        assertFalse(in.readUTF().isEmpty());
+        assertEquals(ShardWorker.OK, in.readByte());
+        assertSameResult(expected(file, 3, 1), SimulationResult.readFrom(in));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void modelsTest() throws Exception {
+        ShardWorker worker = new ShardWorker();
+        Path[] files = new Path[ShardWorker.MAX_MODELS + 1];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = model("m" + i + ".txt", 10 + i);
+            worker.run(new Shard(files[i], 1, 1));
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        // recent models are not parsed again, the eldest one was evicted
+        for (int i = files.length - 1; i > 0; i--) {
+            assertSameResult(worker.run(new Shard(files[i], 1, 1)), worker.run(new Shard(files[i], 1, 1)));
+        }
+        assertThrows(Exception.class, () -> worker.run(new Shard(files[0], 1, 1)));
+    }
+
+    @Test
+    void endOfInputTest() throws Exception {
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        new ShardWorker().serve(new ByteArrayInputStream(new byte[0]), responses);
+        assertEquals(0, responses.size());
+    }
+
+    @Test
+    void resultRoundTripTest() throws Exception {
+        Path file = model("a.txt", 10);
+        SimulationResult result = expected(file, 5, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        result.writeTo(new DataOutputStream(bytes));
+        assertEquals(20 + 16 * 2, bytes.size());
+        SimulationResult read = SimulationResult.readFrom(new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())));
+        assertSameResult(result, read);
+        assertEquals(result.getNanos(), read.getNanos());
+        long nanos = read.getNanos();
+        read.merge(result);
+        assertEquals(nanos + result.getNanos(), read.getNanos());
+        assertThrows(IllegalArgumentException.class, () -> result.merge(new SimulationResult(3)));
+    }
+
+    @Test
+    void processTest() throws Exception {
+        Path a = model("a.txt", 10);
+        Path b = model("b.txt", 20);
+        List<Shard> shards = ShardCoordinator.plan(List.of(a, b), 1, 5, 2);
+        Map<Path, SimulationResult> results = new ShardCoordinator(2).run(shards);
+        assertEquals(List.of(a.toAbsolutePath(), b.toAbsolutePath()), List.copyOf(results.keySet()));
+        assertEquals(5 * 500, results.get(a.toAbsolutePath()).getPlayouts());
+        assertSameResult(expected(a, 1, 5), results.get(a.toAbsolutePath()));
+        assertSameResult(expected(b, 1, 5), results.get(b.toAbsolutePath()));
+    }
+
+    @Test
+    void failureTest() throws Exception {
+        Path a = model("a.txt", 10);
+        Path broken = tmp.resolve("broken.txt");
+        Files.writeString(broken, "board {\n(1)\n}\nplayer { name = \"A\" }\n");
+        List<Shard> shards = ShardCoordinator.plan(List.of(a, broken), 1, 2, 1);
+        Exception e = assertThrows(Exception.class, () -> new ShardCoordinator(1).run(shards));
+        assertTrue(e.getMessage().startsWith("Shard " + broken.toAbsolutePath()), e.getMessage());
+        assertTrue(e.getMessage().endsWith("Player 'A' must have integer property 'income'."), e.getMessage());
+    }
+
+    @Test
+    void failureStopsSweepTest() throws Exception {
+        Path broken = tmp.resolve("broken.txt");
+        Files.writeString(broken, "board {\n(1)\n}\nplayer { name = \"A\" }\n");
+        Path slow = tmp.resolve("slow.txt");
+        Files.writeString(slow, "board {\n(1) (2) (3)\n}\nplayer { name = \"A\", income = 1 }\n"
+                + "simulation { rounds = 200, playouts = 200000 }\n");
+        // far more work than the timeout, whichever worker gets the broken shard must stop the other one
+        List<Shard> shards = new ArrayList<>(ShardCoordinator.plan(List.of(broken), 1, 1, 1));
+        shards.addAll(ShardCoordinator.plan(List.of(slow), 1, 1000, 1));
+        Exception e = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                () -> assertThrows(Exception.class, () -> new ShardCoordinator(2).run(shards)));
+        assertTrue(e.getMessage().startsWith("Shard " + broken.toAbsolutePath()), e.getMessage());
+    }
+}
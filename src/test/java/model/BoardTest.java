@@ -0,0 +1,61 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    @Test
+    void lookupTest() {
+        // 5 -1  7
+        // 2  9
+        Board board = new Board(new int[]{5, Board.EMPTY, 7, 2, 9}, new int[]{0, 3, 5});
+        assertEquals(5, board.getCellCount());
+        assertEquals(4, board.getFieldCount());
+        assertEquals(2, board.getRowCount());
+        assertEquals(3, board.getRowLength(0));
+        assertEquals(2, board.getRowLength(1));
+        assertEquals(9, board.getMaxId());
+
+        int cell = board.getCell(9);
+        assertEquals(4, cell);
+        assertEquals(1, board.getRow(cell));
+        assertEquals(1, board.getColumn(cell));
+        assertEquals(Board.EMPTY, board.getCell(3));
+        assertEquals(Board.EMPTY, board.getCell(100));
+        assertTrue(board.isEmpty(1));
+
+        assertEquals(1, board.getNeighbor(cell, Board.UP));
+        assertEquals(Board.EMPTY, board.getNeighbor(cell, Board.RIGHT));
+        assertEquals(Board.EMPTY, board.getNeighbor(cell, Board.DOWN));
+        assertEquals(3, board.getNeighbor(cell, Board.LEFT));
+        // row below is shorter
+        assertEquals(Board.EMPTY, board.getNeighbor(board.getCell(7), Board.DOWN));
+        assertEquals(board.getCell(2), board.getNeighbor(board.getCell(5), Board.DOWN));
+    }
+
+    @Test
+    void sparseIdsTest() {
+        Board board = new Board(new int[]{Integer.MAX_VALUE, Board.EMPTY, 1_000_000_000, 3}, new int[]{0, 2, 4});
+        assertEquals(Integer.MAX_VALUE, board.getMaxId());
+        assertEquals(0, board.getCell(Integer.MAX_VALUE));
+        assertEquals(2, board.getCell(1_000_000_000));
+        assertEquals(3, board.getCell(3));
+        assertEquals(Board.EMPTY, board.getCell(4));
+        assertEquals(Board.EMPTY, board.getCell(-5));
+        assertEquals(board.getCell(1_000_000_000), board.getNeighbor(board.getCell(Integer.MAX_VALUE), Board.DOWN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Board(new int[]{1_000_000_000, 1_000_000_000}, new int[]{0, 2}));
+    }
+
+    @Test
+    void invalidTest() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(new int[]{1, 1}, new int[]{0, 2}));
+        assertThrows(IllegalArgumentException.class, () -> new Board(new int[]{1, 2}, new int[]{0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new Board(new int[]{-2}, new int[]{0, 1}));
+        Board empty = new Board(new int[0], new int[]{0});
+        assertEquals(0, empty.getRowCount());
+        assertEquals(Board.EMPTY, empty.getMaxId());
+    }
+}
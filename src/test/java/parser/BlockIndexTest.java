@@ -0,0 +1,105 @@
+package parser;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIndexTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static BlockIndex scan(String text) {
+        return BlockIndex.scan(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void scanTest() throws Exception {
+        String text = "// bundle { not a block }\n"
+                + "board {\n(1) (2)\n}\n"
+                + "player { name = \"}{\", income = 1 }\n"
+                + "player { name = \"B\" // }\n income = 2 }\n"
+                + "{ }\n"
+                + "žluť{}";
+        BlockIndex index = scan(text);
+        assertEquals(5, index.size());
+        assertEquals(List.of(1, 2), index.findAll("player"));
+        assertEquals(0, index.find("board"));
+        assertEquals(-1, index.find("bundle"));
+        assertEquals("", scan("player\n{ }").getName(0));
+        assertEquals("", index.getName(3));
+        assertEquals("žluť", index.getName(4));
+        assertEquals(text.indexOf("board"), index.getStart(0));
+        assertEquals(text.indexOf("}\nplayer") + 1, index.getEnd(0));
+
+        assertEquals("}{", index.getPlayer(1).getName());
+        Player b = index.getPlayer(2);
+        assertEquals(2, b.getIncome());
+        assertSame(b, index.getPlayer(2));
+        assertEquals(2, index.getBoard(0).getFieldCount());
+        assertThrows(Exception.class, () -> index.getBoard(1));
+        assertThrows(Exception.class, () -> index.getPlayer(4));
+    }
+
+    @Test
+    void resourcesTest() throws Exception {
+        BlockIndex board = BlockIndex.map(Path.of(pathToResources + "model_board.txt"));
+        assertEquals(1, board.size());
+        Board parsed = board.getBoard(0);
+        assertEquals(3, parsed.getFieldCount());
+        assertEquals(ByteLexerTest.describe(ByteLexer.map(Path.of(pathToResources + "model_board.txt"))),
+                ByteLexerTest.describe(board.lexer(0)));
+
+        BlockIndex player = BlockIndex.map(Path.of(pathToResources + "model_player.txt"));
+        assertEquals("Petr", player.getPlayer(player.find("player")).getName());
+    }
+
+    @Test
+    void unclosedTest() {
+        BlockIndex index = scan("a { b { }");
+        assertEquals(1, index.size());
+        assertEquals(9, index.getEnd(0));
+        assertThrows(Exception.class, () -> index.getPlayer(0));
+        assertEquals(0, scan("} x = 1").size());
+    }
+
+    @Test
+    void concurrentTest() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            text.append("player { name = \"P").append(i).append("\", income = ").append(i + 1).append(" }\n");
+        }
+        BlockIndex index = scan(text.toString());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Player>> first = new ArrayList<>();
+            List<Future<Player>> second = new ArrayList<>();
+            for (int i = 0; i < index.size(); i++) {
+                int block = i;
+                first.add(pool.submit(() -> index.getPlayer(block)));
+                second.add(pool.submit(() -> index.getPlayer(block)));
+            }
+            for (int i = 0; i < index.size(); i++) {
+                // every block is parsed once, all threads get the same instance
+                assertSame(first.get(i).get(), second.get(i).get());
+                assertEquals(i + 1, first.get(i).get().getIncome());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        // a failure is not remembered, asking again fails again
+        BlockIndex broken = scan("player { name = }");
+        assertThrows(Exception.class, () -> broken.getPlayer(0));
+        assertThrows(Exception.class, () -> broken.getPlayer(0));
+    }
+}
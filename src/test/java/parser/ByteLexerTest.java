@@ -0,0 +1,154 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteLexerTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    /**
+     * Describes tokens as text, so results of both lexers can be compared including values.
+     * Failure is described as single "error" entry.
+     */
+    static List<String> describe(TokenSource source) {
+        List<String> result = new ArrayList<>();
+        try {
+            Token t;
+            do {
+                t = source.readToken();
+                result.add(describe(t));
+            } while (t.getType() != Token.Type.T_EOF);
+        } catch (Exception e) {
+            result.add("error");
+        }
+        return result;
+    }
+
+    static String describe(Token t) {
+        return switch (t.getType()) {
+            case T_STR, T_NAME -> t.getType() + ":" + t.getStrValue();
+            case T_INT, T_FIELD -> t.getType() + ":" + t.getIntValue();
+            case T_BOOL -> t.getType() + ":" + t.getBoolValue();
+            default -> t.getType().toString();
+        };
+    }
+
+    /**
+     * Describes tokens collected in {@link TokenBuffer}, same way as {@link #describe(TokenSource)}.
+     */
+    static List<String> describe(ByteLexer lexer, TokenBuffer buffer) {
+        buffer.clear();
+        try {
+            lexer.tokenize(buffer);
+        } catch (Exception e) {
+            return List.of("error");
+        }
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            result.add(describe(buffer.toToken(i)));
+        }
+        return result;
+    }
+
+    private static void assertSameAsLexer(String text) {
+        List<String> expected = describe(new Lexer(new PushbackReader(new StringReader(text))));
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, describe(new ByteLexer(bytes)), text);
+        if (!expected.contains("error")) {
+            assertEquals(expected, describe(new ByteLexer(bytes), new TokenBuffer(1)), text);
+        }
+    }
+
+    @Test
+    void resourcesTest() throws Exception {
+        for (String file : new String[]{"blank.txt", "newline.txt", "eq.txt", "comment.txt",
+                "model_board.txt", "model_player.txt"}) {
+            assertSameAsLexer(Files.readString(Path.of(pathToResources + file)));
+            List<String> mapped = describe(ByteLexer.map(Path.of(pathToResources + file)));
+            assertEquals(describe(new ByteLexer(Files.readAllBytes(Path.of(pathToResources + file)))), mapped);
+        }
+    }
+
+    @Test
+    void lineEndingsTest() {
+        assertSameAsLexer("a\r\nb\rc\n\r\n\r");
+        assertSameAsLexer("a // comment\r\n(1)\r// x\r");
+        assertSameAsLexer("\"abc\r\n\"");
+    }
+
+    @Test
+    void unicodeTest() {
+        assertSameAsLexer("název = \"Příliš žluťoučký\"");
+        assertSameAsLexer("a = 1٣, (٤ )");
+        assertSameAsLexer("\"🎲\" = 5");
+        assertSameAsLexer("a🎲");
+        assertSameAsLexer("a = b");
+    }
+
+    @Test
+    void errorTest() {
+        assertSameAsLexer("(");
+        assertSameAsLexer("-0");
+        assertSameAsLexer("\"abc");
+        assertSameAsLexer("a\tb");
+        assertSameAsLexer("99999999999");
+        assertSameAsLexer("/x");
+    }
+
+    @Test
+    void intLimitsTest() {
+        assertSameAsLexer("-2147483648 2147483647");
+        assertSameAsLexer("2147483648");
+        assertSameAsLexer("-2147483649");
+        assertSameAsLexer("(0000000000000000000007)");
+    }
+
+    @Test
+    void tokenBufferTest() throws Exception {
+        TokenBuffer buffer = new TokenBuffer(4);
+        ByteLexer.map(Path.of(pathToResources + "model_player.txt")).tokenize(buffer);
+        assertEquals(18, buffer.size());
+        assertEquals(Token.Type.T_NAME, buffer.getType(0));
+        assertTrue(buffer.contentEquals(0, "player"));
+        assertFalse(buffer.contentEquals(0, "players"));
+        assertEquals(14000, buffer.getValue(5));
+        assertEquals("Petr", buffer.getStrValue(10));
+        assertEquals(Token.Type.T_BOOL, buffer.getType(14));
+        assertEquals(1, buffer.getValue(14));
+        assertEquals(Token.Type.T_EOF, buffer.getType(buffer.size() - 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getType(18));
+
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        new ByteLexer("{,}".getBytes(StandardCharsets.UTF_8)).tokenize(buffer);
+        assertEquals(4, buffer.size());
+        assertEquals(Token.Type.T_COMMA, buffer.getType(1));
+    }
+
+    @Test
+    void randomInputTest() {
+        String[] alphabet = {"{", "}", "=", ",", "\"", "/", "(", ")", "-", "0", "1", "5", "9", "x", "a", "b", "_",
+                " ", "\t", "\r", "\n", "á", "٣", "\u00A0", "\u0085", "\u007F", "\u2028", "🎲"};
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = sb.toString();
+            assertSameAsLexer(text);
+        }
+    }
+}
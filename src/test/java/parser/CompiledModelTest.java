@@ -0,0 +1,81 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledModelTest {
+
+    private String pathToResources = "./src/test/resources/";
+    @TempDir
+    Path tmp;
+
+    private static void assertSameTokens(TokenBuffer expected, TokenBuffer actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(ByteLexerTest.describe(expected.toToken(i)), ByteLexerTest.describe(actual.toToken(i)));
+        }
+    }
+
+    @Test
+    void writeAndReadTest() throws Exception {
+        for (String file : new String[]{"blank.txt", "comment.txt", "model_board.txt", "model_player.txt"}) {
+            CompiledModel model = CompiledModel.compile(Path.of(pathToResources + file));
+            Path binary = tmp.resolve(file + ".bin");
+            model.write(binary);
+            CompiledModel read = CompiledModel.read(binary);
+            assertSameTokens(model.getTokens(), read.getTokens());
+            assertEquals(model.getSymbols().size(), read.getSymbols().size());
+        }
+        CompiledModel player = CompiledModel.read(tmp.resolve("model_player.txt.bin"));
+        assertEquals(SymbolTable.PLAYER, player.getTokens().getSymbol(0));
+        assertTrue(player.getTokens().contentEquals(3, "income"));
+        assertEquals("Petr", player.getSymbols().getName(player.getTokens().getSymbol(10)));
+    }
+
+    @Test
+    void corruptedTest() throws Exception {
+        Path binary = tmp.resolve("bad.bin");
+        Files.writeString(binary, "not a model");
+        assertThrows(IOException.class, () -> CompiledModel.read(binary));
+
+        CompiledModel.compile(Path.of(pathToResources + "model_board.txt")).write(binary);
+        byte[] bytes = Files.readAllBytes(binary);
+        Files.write(binary, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> CompiledModel.read(binary));
+    }
+
+    @Test
+    void cacheTest() throws Exception {
+        CompiledModelCache cache = new CompiledModelCache(tmp.resolve("cache"));
+        Path model = tmp.resolve("model.txt");
+        Files.copy(Path.of(pathToResources + "model_player.txt"), model);
+
+        CompiledModel first = cache.load(model);
+        try (Stream<Path> entries = Files.list(tmp.resolve("cache"))) {
+            assertEquals(1, entries.count());
+        }
+        CompiledModel second = cache.load(model);
+        assertSameTokens(first.getTokens(), second.getTokens());
+
+        Files.writeString(model, "player{income = 1}");
+        CompiledModel changed = cache.load(model);
+        assertEquals(1, changed.getTokens().getValue(4));
+        try (Stream<Path> entries = Files.list(tmp.resolve("cache"))) {
+            assertEquals(2, entries.count());
+        }
+
+        // broken entry is compiled again
+        Path entry = cache.entry(ByteLexer.mapFile(model));
+        Files.writeString(entry, "broken");
+        assertEquals(1, cache.load(model).getTokens().getValue(4));
+        assertNotNull(CompiledModel.read(entry));
+    }
+}
@@ -0,0 +1,100 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticsTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static ByteLexer lexer(String text) {
+        return new ByteLexer(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> describe(TokenBuffer buffer) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            result.add(ByteLexerTest.describe(buffer.toToken(i)));
+        }
+        return result;
+    }
+
+    @Test
+    void validateTest() throws Exception {
+        String text = "board {\n"
+                + "  name = \"ok\" ; x\r\n"
+                + "  (1 2) = 3\n"
+                + "  žluť = \"unterminated\n"
+                + "  a = 99999999999, b = 1 / c\r"
+                + "  \"ok\" -x\n"
+                + "}";
+        Diagnostics diagnostics = new Diagnostics();
+        assertEquals(5, lexer(text).validate(diagnostics));
+        assertEquals(LexError.UNSUPPORTED_CHARACTER, diagnostics.getError(0));
+        assertEquals("2:15: Unsupported character", diagnostics.getMessage(0));
+        assertEquals(LexError.INVALID_FIELD, diagnostics.getError(1));
+        assertEquals("3:6: Invalid field", diagnostics.getMessage(1));
+        assertEquals(LexError.UNTERMINATED_STRING, diagnostics.getError(2));
+        assertEquals("4:23: Unterminated string", diagnostics.getMessage(2));
+        // the rest of the line is skipped after the first error
+        assertEquals(LexError.INT_OVERFLOW, diagnostics.getError(3));
+        assertEquals("5:7: Integer out of range", diagnostics.getMessage(3));
+        assertEquals(LexError.INVALID_NUMBER, diagnostics.getError(4));
+        assertEquals(6, diagnostics.getLine(4));
+        assertEquals(9, diagnostics.getColumn(4));
+
+        diagnostics.clear();
+        assertEquals(0, lexer("board { a = \"b\" }\n").validate(diagnostics));
+        assertEquals(1, lexer("\"a\nb = 1").validate(diagnostics));
+        assertEquals(1, diagnostics.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> diagnostics.getError(1));
+    }
+
+    @Test
+    void tokenizeTest() throws Exception {
+        Diagnostics diagnostics = new Diagnostics();
+        TokenBuffer buffer = new TokenBuffer();
+        lexer("a = 1 ;\nb = 2\n/x\n").tokenize(buffer, diagnostics);
+        assertEquals(List.of("T_NAME:a", "T_EQ", "T_INT:1", "T_NEWLINE", "T_NAME:b", "T_EQ", "T_INT:2", "T_NEWLINE",
+                "T_NEWLINE", "T_EOF"), describe(buffer));
+        assertEquals(2, diagnostics.size());
+        assertEquals(LexError.INVALID_COMMENT, diagnostics.getError(1));
+        assertEquals(3, diagnostics.getLine(1));
+
+        // without diagnostics errors are still thrown, with the same message as Lexer
+        String text = "a = 1 ;";
+        Exception thrown = assertThrows(Exception.class, () -> lexer(text).tokenize(new TokenBuffer()));
+        Exception expected = assertThrows(Exception.class,
+                () -> new Lexer(new PushbackReader(new StringReader(text))).readAll());
+        assertEquals(expected.getMessage(), thrown.getMessage());
+        assertThrows(NumberFormatException.class, () -> lexer("(99999999999)").tokenize(new TokenBuffer()));
+    }
+
+    @Test
+    void equivalenceTest() throws Exception {
+        String[] valid = {"board {\n (1) = 2, (x) = -3 // c\n}", "a = \"ž\"\r\nb = yes\r\n", ""};
+        for (String text : valid) {
+            Diagnostics diagnostics = new Diagnostics();
+            TokenBuffer buffer = new TokenBuffer();
+            lexer(text).tokenize(buffer, diagnostics);
+            assertEquals(0, diagnostics.size());
+            assertEquals(ByteLexerTest.describe(lexer(text)), describe(buffer));
+        }
+    }
+
+    @Test
+    void modelLoaderTest() throws Exception {
+        Map<Path, List<String>> errors = new ModelLoader(2).validate(List.of(
+                Path.of(pathToResources + "model_board.txt"), Path.of(pathToResources + "model_player.txt")));
+        assertTrue(errors.isEmpty());
+    }
+}
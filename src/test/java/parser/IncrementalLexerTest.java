@@ -0,0 +1,149 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalLexerTest {
+
+    private String pathToResources = "./src/test/resources/";
+    @TempDir
+    Path tmp;
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> describe(IncrementalLexer lexer) throws Exception {
+        List<String> result = new ArrayList<>();
+        for (Token t : lexer.tokens()) {
+            result.add(ByteLexerTest.describe(t));
+        }
+        return result;
+    }
+
+    /**
+     * Checks that lexer has the same tokens as the whole text lexed at once, or fails with the same error.
+     */
+    private static void assertSameAsByteLexer(IncrementalLexer lexer) throws Exception {
+        byte[] text = lexer.getText();
+        String message = new String(text, StandardCharsets.UTF_8);
+        List<String> expected = ByteLexerTest.describe(new ByteLexer(text));
+        if (expected.contains("error")) {
+            Exception whole = assertThrows(Exception.class, () -> new ByteLexer(text).readAll(), message);
+            Exception incremental = assertThrows(Exception.class, lexer::tokens, message);
+            assertEquals(whole.getMessage(), incremental.getMessage(), message);
+        } else {
+            assertEquals(expected, describe(lexer), message);
+        }
+    }
+
+    @Test
+    void editTest() throws Exception {
+        byte[] text = Files.readAllBytes(Path.of(pathToResources + "model_player.txt"));
+        IncrementalLexer lexer = new IncrementalLexer(text);
+        assertEquals(4, lexer.getLineCount());
+        assertSameAsByteLexer(lexer);
+
+        String content = new String(text, StandardCharsets.UTF_8);
+        int at = content.indexOf("14000");
+        assertEquals(3, lexer.edit(at, 5, bytes("15000")));
+        assertEquals(15000, lexer.getTokens(1).get(2).getIntValue());
+        assertSameAsByteLexer(lexer);
+
+        // CR inserted before LF joins into one separator
+        lexer = new IncrementalLexer(bytes("a = 1\nb = 2\nc = 3"));
+        lexer.edit(5, 0, bytes("\r"));
+        assertEquals(3, lexer.getLineCount());
+        assertEquals(6, lexer.getLineStart(1) - 1);
+        assertSameAsByteLexer(lexer);
+        lexer.edit(0, lexer.length(), bytes(""));
+        assertEquals(1, lexer.getLineCount());
+        assertEquals(List.of("T_EOF"), describe(lexer));
+        assertThrows(IndexOutOfBoundsException.class, () -> new IncrementalLexer().edit(0, 1, bytes("")));
+    }
+
+    @Test
+    void updateTest() throws Exception {
+        StringBuilder text = new StringBuilder("board {\n");
+        for (int i = 1; i <= 1000; i++) {
+            text.append("(").append(i).append(")\n");
+        }
+        text.append("}");
+        IncrementalLexer lexer = new IncrementalLexer(bytes(text.toString()));
+        String edited = text.toString().replace("(500)", "(500) (x)");
+        assertEquals(1, lexer.update(bytes(edited)));
+        assertSameAsByteLexer(lexer);
+        assertEquals(0, lexer.update(bytes(edited)));
+        assertEquals(1, lexer.update(bytes(edited.replace("(700)", "(700) ;"))));
+        assertThrows(Exception.class, lexer::tokens);
+        assertThrows(Exception.class, () -> lexer.getTokens(700));
+        assertEquals(List.of(Token.Type.T_FIELD, Token.Type.T_NEWLINE),
+                lexer.getTokens(701).stream().map(Token::getType).collect(Collectors.toList()));
+    }
+
+    @Test
+    void randomTest() throws Exception {
+        String[] alphabet = {"a", "1", " ", "=", "\"", "/", "(", ")", "x", "\n", "\r", "ž", "{", "-"};
+        Random random = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            IncrementalLexer lexer = new IncrementalLexer(bytes(sb.toString()));
+            for (int edit = 0; edit < 20; edit++) {
+                StringBuilder replacement = new StringBuilder();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    replacement.append(alphabet[random.nextInt(alphabet.length)]);
+                }
+                int offset = random.nextInt(lexer.length() + 1);
+                int count = random.nextInt(Math.min(4, lexer.length() - offset) + 1);
+                byte[] before = lexer.getText();
+                // keep multibyte characters whole
+                if (offset < before.length && (before[offset] & 0xC0) == 0x80
+                        || offset + count < before.length && (before[offset + count] & 0xC0) == 0x80) {
+                    continue;
+                }
+                lexer.edit(offset, count, bytes(replacement.toString()));
+                assertSameAsByteLexer(lexer);
+                assertSameAsByteLexer(new IncrementalLexer(lexer.getText()));
+            }
+        }
+    }
+
+    @Test
+    void watcherTest() throws Exception {
+        Path file = tmp.resolve("model.txt");
+        Files.writeString(file, "player {\nincome = 1,\nname = \"A\"\n}\n");
+        List<Integer> reloads = new ArrayList<>();
+        try (ModelWatcher watcher = new ModelWatcher(tmp, "*.txt", (p, lexer, lexed) -> reloads.add(lexed))) {
+            assertNotNull(watcher.getLexer(file));
+            Files.writeString(file, "player {\nincome = 2,\nname = \"A\"\n}\n");
+            Files.writeString(tmp.resolve("ignored.dat"), "x");
+            int reloaded = 0;
+            for (int i = 0; i < 20 && reloaded == 0; i++) {
+                reloaded += watcher.poll(500, TimeUnit.MILLISECONDS);
+            }
+            assertEquals(1, reloaded);
+            assertEquals(List.of(1), reloads);
+            assertEquals(2, watcher.getLexer(file).getTokens(1).get(2).getIntValue());
+
+            Files.delete(file);
+            for (int i = 0; i < 20 && watcher.getLexer(file) != null; i++) {
+                watcher.poll(500, TimeUnit.MILLISECONDS);
+            }
+            assertNull(watcher.getLexer(file));
+        }
+    }
+}
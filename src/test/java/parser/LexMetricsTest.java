@@ -0,0 +1,109 @@
+package parser;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileReader;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexMetricsTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    @Test
+    void lexerTest() throws Exception {
+        LexMetrics metrics = new LexMetrics();
+        List<Token> tokens;
+        try (PushbackReader br = new PushbackReader(new FileReader(pathToResources + "model_board.txt"))) {
+            Lexer lexer = new Lexer(br);
+            lexer.setMetrics(metrics, "model_board.txt");
+            tokens = lexer.readAll();
+        }
+        assertEquals(tokens.size(), metrics.getTokens());
+        for (Token.Type type : Token.Type.values()) {
+            assertEquals(tokens.stream().filter(t -> t.getType() == type).count(), metrics.getTokens(type));
+        }
+        assertEquals(Files.readString(Path.of(pathToResources + "model_board.txt")).length(), metrics.getBytes());
+        assertEquals(1, metrics.getInputs());
+        assertEquals(0, metrics.getErrors());
+        Map<String, Long> times = metrics.getStateTimes();
+        assertEquals(State.values().length, times.size());
+        assertTrue(times.get("LEX_S") > 0);
+
+        metrics.reset();
+        // CR not followed by LF is pushed back, the one at the end of input is not
+        Lexer lexer = new Lexer(new PushbackReader(new StringReader("a\rb = 1\r\nc\r")));
+        lexer.setMetrics(metrics, null);
+        lexer.readAll();
+        assertEquals(1, metrics.getNewLinePushbacks());
+        assertEquals(11, metrics.getBytes());
+
+        Lexer failing = new Lexer(new PushbackReader(new StringReader("a = \"b\n")));
+        failing.setMetrics(metrics, null);
+        assertThrows(Exception.class, failing::readAll);
+        assertEquals(1, metrics.getErrors(LexError.UNTERMINATED_STRING));
+        assertEquals(2, metrics.getInputs());
+    }
+
+    @Test
+    void byteLexerTest() throws Exception {
+        LexMetrics metrics = new LexMetrics();
+        byte[] bytes = Files.readAllBytes(Path.of(pathToResources + "model_player.txt"));
+        ByteLexer lexer = new ByteLexer(bytes);
+        lexer.setMetrics(metrics, "model_player.txt");
+        TokenBuffer buffer = new TokenBuffer();
+        lexer.tokenize(buffer);
+        assertEquals(buffer.size(), metrics.getTokens());
+        assertEquals(1, metrics.getTokens(Token.Type.T_EOF));
+        assertEquals(bytes.length, metrics.getBytes());
+
+        ByteLexer reading = new ByteLexer(bytes);
+        reading.setMetrics(metrics, null);
+        assertEquals(buffer.size(), reading.readAll().size());
+        assertEquals(2L * buffer.size(), metrics.getTokens());
+        assertEquals(2, metrics.getInputs());
+
+        ByteLexer invalid = new ByteLexer("a = 1 ;\n(1 2)\nb = 99999999999\n".getBytes(StandardCharsets.UTF_8));
+        invalid.setMetrics(metrics, null);
+        assertEquals(3, invalid.validate(new Diagnostics()));
+        assertEquals(3, metrics.getErrors());
+        assertEquals(1, metrics.getErrors(LexError.INVALID_FIELD));
+        assertEquals(1, metrics.getErrors(LexError.INT_OVERFLOW));
+
+        ModelLoader loader = new ModelLoader(2);
+        loader.setMetrics(metrics);
+        metrics.reset();
+        loader.load(List.of(Path.of(pathToResources + "model_board.txt"), Path.of(pathToResources + "model_player.txt")));
+        assertEquals(2, metrics.getInputs());
+    }
+
+    @Test
+    void jfrTest() throws Exception {
+        Path dump = Files.createTempFile("lex", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("parser.Lex");
+            recording.start();
+            ByteLexer lexer = ByteLexer.map(Path.of(pathToResources + "model_board.txt"));
+            lexer.setMetrics(new LexMetrics(), "model_board.txt");
+            lexer.tokenize(new TokenBuffer());
+            recording.stop();
+            recording.dump(dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertEquals(1, events.size());
+            assertEquals("model_board.txt", events.get(0).getString("source"));
+            assertEquals(Files.size(Path.of(pathToResources + "model_board.txt")), events.get(0).getLong("bytes"));
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileReader;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexerTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static List<Token.Type> types(List<Token> tokens) {
+        List<Token.Type> types = new ArrayList<>();
+        for (Token t : tokens) {
+            types.add(t.getType());
+        }
+        return types;
+    }
+
+    @Test
+    void sameAsLexTest() throws Exception {
+        for (String file : new String[]{"blank.txt", "newline.txt", "eq.txt", "comment.txt",
+                "model_board.txt", "model_player.txt"}) {
+            List<Token.Type> expected = new ArrayList<>();
+            try (PushbackReader br = new PushbackReader(new FileReader(pathToResources + file))) {
+                Token t;
+                do {
+                    t = Lex.readToken(br);
+                    expected.add(t.getType());
+                } while (t.getType() != Token.Type.T_EOF);
+            }
+            try (PushbackReader br = new PushbackReader(new FileReader(pathToResources + file))) {
+                assertEquals(expected, types(new Lexer(br).readAll()), file);
+            }
+        }
+    }
+
+    @Test
+    void tokenAtEndOfInputTest() throws Exception {
+        List<Token> tokens = new Lexer(new PushbackReader(new StringReader("a=15"))).readAll();
+        assertEquals(List.of(Token.Type.T_NAME, Token.Type.T_EQ, Token.Type.T_INT, Token.Type.T_EOF), types(tokens));
+        assertEquals(15, tokens.get(2).getIntValue());
+
+        tokens = new Lexer(new PushbackReader(new StringReader("a\r"))).readAll();
+        assertEquals(List.of(Token.Type.T_NAME, Token.Type.T_NEWLINE, Token.Type.T_EOF), types(tokens));
+    }
+
+    @Test
+    void commentAtEndOfInputTest() throws Exception {
+        List<Token> tokens = new Lexer(new PushbackReader(new StringReader("a // no newline"))).readAll();
+        assertEquals(List.of(Token.Type.T_NAME, Token.Type.T_EOF), types(tokens));
+    }
+
+    @Test
+    void loadDirectoryTest() throws Exception {
+        Map<Path, List<Token>> loaded = new ModelLoader(4).loadDirectory(Path.of(pathToResources), "*.txt");
+        assertEquals(6, loaded.size());
+        for (Map.Entry<Path, List<Token>> e : loaded.entrySet()) {
+            assertEquals(ModelLoader.loadFile(e.getKey()).size(), e.getValue().size());
+        }
+        List<Token> board = loaded.get(Path.of(pathToResources, "model_board.txt"));
+        assertEquals(Token.Type.T_NAME, board.get(0).getType());
+        assertEquals("board", board.get(0).getName());
+    }
+
+    @Test
+    void loadFailureTest() {
+        Exception e = assertThrows(Exception.class,
+                () -> new ModelLoader(2).load(List.of(Path.of(pathToResources, "missing.txt"))));
+        assertTrue(e.getMessage().contains("missing.txt"));
+    }
+}
@@ -0,0 +1,124 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelCacheTest {
+
+    private String pathToResources = "./src/test/resources/";
+    @TempDir
+    Path tmp;
+
+    @Test
+    void hitAndChangeTest() throws Exception {
+        ModelCache<List<Token>> cache = ModelCache.ofTokens(1000);
+        Path file = tmp.resolve("player.txt");
+        Files.writeString(file, "player { income = 1, name = \"A\" }");
+        List<Token> tokens = cache.get(file);
+        assertSame(tokens, cache.get(tmp.resolve("..").resolve(tmp.getFileName()).resolve("player.txt")));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(tokens.size(), cache.getWeight());
+
+        // changed file is loaded again
+        Files.writeString(file, "player { income = 2, name = \"A\" }");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        assertEquals(2, cache.get(file).get(4).getIntValue());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(tokens.size(), cache.getWeight());
+
+        cache.invalidate(file);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertThrows(Exception.class, () -> cache.get(tmp.resolve("missing.txt")));
+    }
+
+    @Test
+    void evictionTest() throws Exception {
+        // weight of every file is its length in characters
+        ModelCache<String> cache = new ModelCache<>(10, Files::readString, String::length);
+        for (int i = 0; i < 4; i++) {
+            Files.writeString(tmp.resolve(i + ".txt"), "abcd");
+        }
+        cache.get(tmp.resolve("0.txt"));
+        cache.get(tmp.resolve("1.txt"));
+        cache.get(tmp.resolve("0.txt"));
+        cache.get(tmp.resolve("2.txt"));
+        // 1.txt was used least recently
+        assertEquals(1, cache.getEvictions());
+        assertEquals(8, cache.getWeight());
+        cache.get(tmp.resolve("0.txt"));
+        assertEquals(2, cache.getHits());
+        cache.get(tmp.resolve("1.txt"));
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2 / 6.0, cache.getHitRate(), 1e-9);
+        cache.resetStatistics();
+        assertEquals(0, cache.getHitRate());
+    }
+
+    @Test
+    void concurrentTest() throws Exception {
+        // threads asking for the same file at the same time share one load
+        Path file = Path.of(pathToResources + "model_player.txt");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ModelCache<List<Token>> cache = new ModelCache<>(Long.MAX_VALUE, p -> {
+            loads.incrementAndGet();
+            release.await();
+            return ModelLoader.loadFile(p);
+        }, List::size);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Token>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> cache.get(file)));
+            }
+            while (cache.getHits() + cache.getMisses() < 8) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<List<Token>> f : futures) {
+                assertSame(futures.get(0).get(), f.get());
+            }
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(7, cache.getHits());
+    }
+
+    @Test
+    void failedLoadTest() throws Exception {
+        Path file = tmp.resolve("bad.txt");
+        Files.writeString(file, "player { income = 0 }");
+        ModelCache<List<Token>> cache = ModelCache.ofTokens(1000);
+        assertThrows(Exception.class, () -> cache.get(file));
+        // failed loads are not cached
+        assertEquals(0, cache.size());
+
+        ModelLoader loader = new ModelLoader(2);
+        loader.setCache(cache);
+        Files.writeString(file, "player { income = 1 }");
+        Map<Path, List<Token>> loaded = loader.load(List.of(file, file));
+        assertSame(loaded.get(file), cache.get(file));
+    }
+}
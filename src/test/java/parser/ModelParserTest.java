@@ -0,0 +1,103 @@
+package parser;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+import sim.SimulationConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelParserTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static ModelParser parser(String text) {
+        return new ModelParser(new ByteLexer(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void boardTest() throws Exception {
+        Board board = new ModelParser(ByteLexer.map(Path.of(pathToResources + "model_board.txt"))).parseBoard();
+        assertEquals(3, board.getRowCount());
+        assertEquals(9, board.getCellCount());
+        assertEquals(3, board.getFieldCount());
+        for (int id = 1; id <= 3; id++) {
+            int cell = board.getCell(id);
+            assertEquals(id - 1, board.getRow(cell));
+            assertEquals(1, board.getColumn(cell));
+        }
+        assertEquals(board.getCell(2), board.getNeighbor(board.getCell(1), Board.DOWN));
+        assertTrue(board.isEmpty(board.getNeighbor(board.getCell(2), Board.LEFT)));
+    }
+
+    @Test
+    void layoutTest() throws Exception {
+        Board board = parser("\n\nboard {(1) (2)\n\n(x)\n(3) (4) (5)}").parseBoard();
+        assertEquals(3, board.getRowCount());
+        assertEquals(1, board.getRowLength(1));
+        assertEquals(6, board.getCellCount());
+        assertEquals(3, board.getRowOffset(2));
+        assertEquals(board.getCell(5), board.getNeighbor(board.getCell(4), Board.RIGHT));
+
+        Board empty = parser("board {\n}").parseBoard();
+        assertEquals(0, empty.getCellCount());
+
+        Board sparse = parser("board { (2147483647) (1) }").parseBoard();
+        assertEquals(0, sparse.getCell(2147483647));
+        assertEquals(1, sparse.getCell(1));
+    }
+
+    @Test
+    void playerTest() throws Exception {
+        Player player = new ModelParser(ByteLexer.map(Path.of(pathToResources + "model_player.txt"))).parsePlayer();
+        assertEquals("Petr", player.getName());
+        assertEquals(14000, player.getIncome());
+        assertTrue(player.getFlag("isGOOD"));
+        assertFalse(player.getFlag("isBAD"));
+        assertEquals(1, player.getProperties().size());
+
+        ModelParser parser = parser("player {\n name = \"A\"\n income = 5, level = 3\n}\n\nplayer{name=\"B\",income=1}\n");
+        assertEquals(3, parser.parsePlayer().getProperties().get("level"));
+        assertFalse(parser.atEnd());
+        assertEquals("B", parser.parsePlayer().getName());
+        assertTrue(parser.atEnd());
+
+        Exception e = assertThrows(Exception.class, () -> parser("player { name = \"A\" }").parsePlayer());
+        assertEquals("Player 'A' must have integer property 'income'.", e.getMessage());
+        e = assertThrows(Exception.class, () -> parser("player { income = 1, income = 2 }").parsePlayer());
+        assertEquals("Property 'income' is defined more than once.", e.getMessage());
+        assertThrows(Exception.class, () -> parser("player { income = 1 name = \"A\" }").parsePlayer());
+    }
+
+    @Test
+    void simulationTest() throws Exception {
+        ModelParser parser = parser("simulation { rounds = 5, seed = 7 }\nsimulation {}\n");
+        assertEquals("simulation", parser.peekBlockName());
+        SimulationConfig config = parser.parseSimulation();
+        assertEquals(5, config.getRounds());
+        assertEquals(SimulationConfig.DEFAULT_PLAYOUTS, config.getPlayouts());
+        assertEquals(7, config.getSeed());
+        assertEquals(SimulationConfig.DEFAULT_ROUNDS, parser.parseSimulation().getRounds());
+        assertNull(parser.peekBlockName());
+
+        Exception e = assertThrows(Exception.class, () -> parser("simulation { speed = 1 }").parseSimulation());
+        assertEquals("Unknown simulation property 'speed'.", e.getMessage());
+        e = assertThrows(Exception.class, () -> parser("simulation { rounds = \"1\" }").parseSimulation());
+        assertEquals("Property 'rounds' must be integer.", e.getMessage());
+    }
+
+    @Test
+    void errorTest() {
+        Exception e = assertThrows(Exception.class, () -> parser("board { (1) = }").parseBoard());
+        assertEquals("Expected field, found T_EQ.", e.getMessage());
+        e = assertThrows(Exception.class, () -> parser("player { }").parseBoard());
+        assertEquals("Expected 'board', found 'player'.", e.getMessage());
+        e = assertThrows(Exception.class, () -> parser("board { (1) (1) }").parseBoard());
+        assertTrue(e.getMessage().startsWith("Invalid board"));
+        assertThrows(Exception.class, () -> parser("board (1)").parseBoard());
+        assertThrows(Exception.class, () -> parser("board { (1)").parseBoard());
+    }
+}
@@ -0,0 +1,102 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelLexerTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static List<String> describe(ParallelLexer lexer, byte[] bytes) {
+        TokenBuffer buffer = new TokenBuffer(1);
+        try {
+            lexer.tokenize(ByteBuffer.wrap(bytes), buffer);
+        } catch (Exception e) {
+            return List.of("error");
+        }
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            result.add(ByteLexerTest.describe(buffer.toToken(i)));
+        }
+        return result;
+    }
+
+    private static void assertSameAsSequential(ParallelLexer lexer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(ByteLexerTest.describe(new ByteLexer(bytes), new TokenBuffer()), describe(lexer, bytes), text);
+    }
+
+    @Test
+    void splitTest() {
+        ByteBuffer src = ByteBuffer.wrap("ab\r\ncd\ref\ngh".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(new int[]{0, 4, 7, 10, 12}, ParallelLexer.split(src, 1));
+        assertArrayEquals(new int[]{0, 7, 12}, ParallelLexer.split(src, 5));
+        assertArrayEquals(new int[]{0, 12}, ParallelLexer.split(src, 12));
+        // CR LF is never split
+        assertArrayEquals(new int[]{0, 3, 5}, ParallelLexer.split(ByteBuffer.wrap("a\r\n\r\n".getBytes()), 1));
+    }
+
+    @Test
+    void resourcesTest() throws Exception {
+        ParallelLexer lexer = new ParallelLexer(ForkJoinPool.commonPool(), 3);
+        for (String file : new String[]{"blank.txt", "newline.txt", "eq.txt", "comment.txt",
+                "model_board.txt", "model_player.txt"}) {
+            assertSameAsSequential(lexer, Files.readString(Path.of(pathToResources + file)));
+        }
+    }
+
+    @Test
+    void stringsAndCommentsTest() {
+        ParallelLexer lexer = new ParallelLexer(ForkJoinPool.commonPool(), 2);
+        assertSameAsSequential(lexer, "a=\"x // y\"\r\nb // \"c\r\n\"d\"\n");
+        assertSameAsSequential(lexer, "a=\"x\ny\"\n");
+        assertSameAsSequential(lexer, "(1)\n(\n2)");
+    }
+
+    @Test
+    void largeBoardTest() throws Exception {
+        StringBuilder sb = new StringBuilder("board {\r\n");
+        for (int i = 1; i < 20000; i += 3) {
+            sb.append("( x ) (").append(i).append(") (").append(i + 1).append("  ) // row ").append(i).append("\r\n");
+        }
+        sb.append("}");
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        TokenBuffer expected = new TokenBuffer();
+        new ByteLexer(bytes).tokenize(expected);
+        TokenBuffer actual = new TokenBuffer();
+        new ParallelLexer(new ForkJoinPool(4), 1000).tokenize(ByteBuffer.wrap(bytes), actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getType(i), actual.getType(i));
+            if (expected.getType(i) == Token.Type.T_FIELD) {
+                assertEquals(expected.getValue(i), actual.getValue(i));
+            }
+        }
+        assertTrue(actual.contentEquals(0, "board"));
+    }
+
+    @Test
+    void randomInputTest() {
+        String[] alphabet = {"{", "}", "=", ",", "\"", "/", "(", ")", "-", "1", "x", "a", " ", "\r", "\n", "\r\n", "á"};
+        Random random = new Random(7);
+        ParallelLexer lexer = new ParallelLexer(ForkJoinPool.commonPool(), 4);
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSameAsSequential(lexer, sb.toString());
+        }
+    }
+}
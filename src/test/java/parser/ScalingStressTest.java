@@ -0,0 +1,129 @@
+package parser;
+
+import model.Board;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import util.ModelGenerator;
+
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lexes and parses generated models of growing size, time per byte must stay about the same and memory retained
+ * by parsing must grow at most linearly. Run by {@code mvn test -P stress}.
+ */
+@Tag("stress")
+class ScalingStressTest {
+
+    private static final int[] ROWS = {1000, 16000, 256000};
+    /**
+     * Allowed ratio of time per byte of the largest and the smallest model.
+     */
+    private static final double MAX_SLOWDOWN = 3;
+
+    private interface Job {
+        long run(byte[] model) throws Exception;
+    }
+
+    private static byte[] model(int rows) {
+        ModelGenerator generator = new ModelGenerator(rows);
+        generator.setBoardSize(rows, 16);
+        generator.setPlayers(rows / 100, 6);
+        generator.setCommentDensity(0.2);
+        generator.setStringLength(40);
+        return generator.generate();
+    }
+
+    /**
+     * @return Best time of a few runs in nanoseconds per byte.
+     */
+    private static double nanosPerByte(byte[] model, Job job) throws Exception {
+        long best = Long.MAX_VALUE;
+        long check = 0;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            check += job.run(model);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        assertTrue(check > 0);
+        return (double) best / model.length;
+    }
+
+    private static void assertLinear(String name, Job job) throws Exception {
+        // warm up on the smallest model
+        nanosPerByte(model(ROWS[0]), job);
+        double first = 0;
+        for (int rows : ROWS) {
+            double perByte = nanosPerByte(model(rows), job);
+            if (first == 0) {
+                first = perByte;
+            }
+            assertTrue(perByte <= first * MAX_SLOWDOWN, String.format("%s: %.2f ns/B for %d rows, %.2f ns/B for %d rows",
+                    name, perByte, rows, first, ROWS[0]));
+        }
+    }
+
+    @Test
+    void lexTest() throws Exception {
+        assertLinear("Lex", model -> {
+            PushbackReader br = new PushbackReader(new StringReader(new String(model, StandardCharsets.UTF_8)));
+            long n = 0;
+            while (Lex.readToken(br).getType() != Token.Type.T_EOF) {
+                n++;
+            }
+            return n;
+        });
+    }
+
+    @Test
+    void byteLexerTest() throws Exception {
+        assertLinear("ByteLexer", model -> {
+            TokenBuffer buffer = new TokenBuffer();
+            new ByteLexer(model).tokenize(buffer);
+            return buffer.size();
+        });
+    }
+
+    @Test
+    void parserTest() throws Exception {
+        assertLinear("ModelParser", model -> {
+            ModelParser parser = new ModelParser(new ByteLexer(model));
+            long n = parser.parseBoard().getCellCount();
+            while (!parser.atEnd()) {
+                parser.parsePlayer();
+                n++;
+            }
+            return n;
+        });
+    }
+
+    @Test
+    void memoryTest() throws Exception {
+        // parsed board keeps 8 ints per cell (ids, row, column, cell of id and 4 neighbors) off the heap and only
+        // offsets of rows on it, nothing else may stay
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        BufferPoolMXBean direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct")).findFirst().orElseThrow();
+        for (int rows : ROWS) {
+            byte[] model = model(rows);
+            System.gc();
+            long before = memory.getHeapMemoryUsage().getUsed();
+            long directBefore = direct.getMemoryUsed();
+            Board board = new ModelParser(new ByteLexer(model)).parseBoard();
+            System.gc();
+            long retained = memory.getHeapMemoryUsage().getUsed() - before;
+            long offHeap = direct.getMemoryUsed() - directBefore;
+            assertTrue(retained <= 8L * board.getRowCount() + (8 << 20),
+                    "Board of " + board.getCellCount() + " cells retained " + retained + " B of heap.");
+            assertTrue(offHeap <= 40L * board.getCellCount() + (1 << 20),
+                    "Board of " + board.getCellCount() + " cells holds " + offHeap + " B off the heap.");
+            assertEquals(rows, board.getRowCount());
+        }
+    }
+}
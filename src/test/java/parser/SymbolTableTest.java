@@ -0,0 +1,104 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileReader;
+import java.io.PushbackReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    @Test
+    void keywordsTest() {
+        SymbolTable symbols = new SymbolTable();
+        assertEquals(5, symbols.size());
+        assertEquals(SymbolTable.BOARD, symbols.find("board"));
+        assertEquals(SymbolTable.PLAYER, symbols.intern("player"));
+        assertEquals("income", symbols.getName(SymbolTable.INCOME));
+        assertEquals(SymbolTable.IS_GOOD, symbols.find("isGOOD"));
+        assertEquals(-1, symbols.find("money"));
+        assertThrows(IndexOutOfBoundsException.class, () -> symbols.getName(5));
+    }
+
+    @Test
+    void internTest() {
+        SymbolTable symbols = new SymbolTable();
+        int id = symbols.intern("isGOOD");
+        assertEquals(SymbolTable.IS_GOOD, id);
+        byte[] bytes = "xx isGOOD žluť".getBytes(StandardCharsets.UTF_8);
+        assertEquals(id, symbols.intern(ByteBuffer.wrap(bytes), 3, 6));
+        int unicode = symbols.intern(ByteBuffer.wrap(bytes), 10, bytes.length - 10);
+        assertEquals("žluť", symbols.getName(unicode));
+        assertEquals(unicode, symbols.intern("žluť"));
+        assertSame(symbols.getName(id), symbols.getName(symbols.intern("isGOOD")));
+
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + 6, symbols.intern("name" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + 6, symbols.find("name" + i));
+        }
+        assertEquals(10006, symbols.size());
+    }
+
+    @Test
+    void lexersTest() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        List<Token> tokens = ByteLexer.map(Path.of(pathToResources + "model_player.txt"), symbols).readAll();
+        assertEquals(SymbolTable.PLAYER, tokens.get(0).getSymbol());
+        assertEquals(SymbolTable.INCOME, tokens.get(3).getSymbol());
+        assertEquals(SymbolTable.NAME, tokens.get(8).getSymbol());
+        int petr = tokens.get(10).getSymbol();
+        assertEquals("Petr", symbols.getName(petr));
+        assertThrows(NullPointerException.class, () -> tokens.get(5).getSymbol());
+
+        try (PushbackReader br = new PushbackReader(new FileReader(pathToResources + "model_player.txt"))) {
+            List<Token> read = new Lexer(br, symbols).readAll();
+            assertEquals(petr, read.get(10).getSymbol());
+            assertSame(tokens.get(12).getName(), read.get(12).getName());
+        }
+
+        TokenBuffer buffer = new TokenBuffer();
+        new ParallelLexer(ForkJoinPool.commonPool(), 4)
+                .tokenize(ByteLexer.mapFile(Path.of(pathToResources + "model_player.txt")), buffer, symbols);
+        assertEquals(petr, buffer.getSymbol(10));
+        assertEquals(SymbolTable.PLAYER, buffer.getSymbol(0));
+        assertEquals(SymbolTable.IS_GOOD, buffer.getSymbol(12));
+        assertEquals(6, symbols.size());
+    }
+
+    @Test
+    void parallelIdsTest() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append("player { name = \"P").append(i % 700).append("\", income = 1, x").append(i % 300)
+                    .append(" = 2 }\n");
+        }
+        ByteBuffer src = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        SymbolTable sequential = new SymbolTable();
+        TokenBuffer expected = new TokenBuffer();
+        new ByteLexer(src, sequential).tokenize(expected);
+
+        SymbolTable symbols = new SymbolTable();
+        TokenBuffer buffer = new TokenBuffer();
+        new ParallelLexer(ForkJoinPool.commonPool(), 256).tokenize(src, buffer, symbols);
+        assertTrue(ParallelLexer.split(src, 256).length > 100);
+        assertEquals(sequential.size(), symbols.size());
+        assertEquals(expected.size(), buffer.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getType(i), buffer.getType(i));
+            if (expected.getType(i) == Token.Type.T_NAME || expected.getType(i) == Token.Type.T_STR) {
+                assertEquals(expected.getSymbol(i), buffer.getSymbol(i));
+                assertEquals(expected.getStrValue(i), symbols.getName(buffer.getSymbol(i)));
+            }
+        }
+    }
+}
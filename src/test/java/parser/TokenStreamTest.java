@@ -0,0 +1,83 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStreamTest {
+
+    private String pathToResources = "./src/test/resources/";
+
+    private static TokenStream stream(String text, int lookahead) {
+        return new TokenStream(new Lexer(new PushbackReader(new StringReader(text))), lookahead);
+    }
+
+    @Test
+    void iteratorTest() throws Exception {
+        List<Token> expected = ByteLexer.map(Path.of(pathToResources + "model_board.txt")).readAll();
+        TokenStream tokens = new TokenStream(ByteLexer.map(Path.of(pathToResources + "model_board.txt")));
+        List<String> read = new ArrayList<>();
+        while (tokens.hasNext()) {
+            read.add(ByteLexerTest.describe(tokens.next()));
+        }
+        assertEquals(expected.stream().map(ByteLexerTest::describe).collect(Collectors.toList()), read);
+        assertThrows(NoSuchElementException.class, tokens::next);
+    }
+
+    @Test
+    void peekTest() {
+        TokenStream tokens = stream("board { a = 1 }", 3);
+        assertEquals(Token.Type.T_NAME, tokens.peekType(0));
+        assertEquals(Token.Type.T_LEFTCB, tokens.peekType(1));
+        assertEquals("a", tokens.peek(2).getName());
+        assertThrows(IndexOutOfBoundsException.class, () -> tokens.peek(3));
+        assertEquals("board", tokens.next().getName());
+        assertEquals(Token.Type.T_EQ, tokens.peekType(2));
+        for (int i = 0; i < 4; i++) {
+            tokens.next();
+        }
+        assertEquals(Token.Type.T_RIGHTCB, tokens.peekType(0));
+        // past the end of input there is always EOF
+        assertEquals(Token.Type.T_EOF, tokens.peekType(1));
+        assertEquals(Token.Type.T_EOF, tokens.peekType(2));
+        tokens.next();
+        assertEquals(Token.Type.T_EOF, tokens.next().getType());
+        assertFalse(tokens.hasNext());
+    }
+
+    @Test
+    void errorTest() {
+        TokenStream tokens = stream("a = 1\nb = ;", 2);
+        // tokens before the error are returned
+        assertEquals(Token.Type.T_NAME, tokens.next().getType());
+        assertEquals(Token.Type.T_EQ, tokens.peekType(0));
+        for (int i = 0; i < 5; i++) {
+            tokens.next();
+        }
+        assertThrows(IllegalStateException.class, tokens::peek);
+        assertThrows(IllegalStateException.class, tokens::next);
+    }
+
+    @Test
+    void streamTest() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("a").append(i).append(" = ").append(i + 1).append('\n');
+        }
+        long sum = new TokenStream(new ByteLexer(text.toString().getBytes()))
+                .stream()
+                .filter(t -> t.getType() == Token.Type.T_INT)
+                .mapToLong(Token::getIntValue)
+                .sum();
+        assertEquals(1000 * 1001 / 2, sum);
+        assertEquals(4001, stream(text.toString(), 1).stream().count());
+    }
+}
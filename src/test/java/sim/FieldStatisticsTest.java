@@ -0,0 +1,119 @@
+package sim;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldStatisticsTest {
+
+    private static final Board BOARD = new Board(new int[]{1, Board.EMPTY, 2, 3, 4, 5}, new int[]{0, 3, 6});
+    private static final List<Player> PLAYERS = List.of(new Player("a", 10, Map.of()),
+            new Player("b", 20, Map.of("isGOOD", true)));
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void simulationTest() {
+        Simulation simulation = new Simulation(BOARD, PLAYERS, 30);
+        FieldStatistics one = FieldStatistics.allocate(5);
+        simulation.setStatistics(one);
+        SimulationResult result = simulation.run(5_000, 3, new ForkJoinPool(1));
+        FieldStatistics many = FieldStatistics.allocate(5);
+        simulation.setStatistics(many);
+        simulation.run(5_000, 3, new ForkJoinPool(4));
+
+        long visits = 0;
+        long income = 0;
+        for (int f = 0; f < 5; f++) {
+            assertEquals(one.getVisits(f), many.getVisits(f));
+            assertEquals(one.getIncome(f), many.getIncome(f));
+            visits += one.getVisits(f);
+            income += one.getIncome(f);
+        }
+        // every player lands once a round
+        assertEquals(5_000L * 30 * 2, visits);
+        double money = (result.getMeanMoney(0) + result.getMeanMoney(1)) * result.getPlayouts();
+        assertEquals(money, income, 1e-3 * money);
+        assertEquals(one.getVisits(2), one.getVisits().get(2));
+
+        assertThrows(IllegalArgumentException.class, () -> simulation.setStatistics(FieldStatistics.allocate(4)));
+        simulation.setStatistics(null);
+    }
+
+    @Test
+    void countersTest() {
+        // more fields than counted in arrays, landings go to a hash table that has to grow
+        int fields = FieldCounters.MAX_DENSE_FIELDS * 2;
+        FieldCounters counters = new FieldCounters(fields);
+        for (int i = 0; i < 5000; i++) {
+            counters.add(i * 17 % fields, i % 3);
+            counters.add(fields - 1, 0);
+        }
+        FieldStatistics statistics = FieldStatistics.allocate(fields);
+        counters.addTo(statistics);
+        counters.addTo(statistics);
+        assertEquals(2, statistics.getVisits(17));
+        assertEquals(2, statistics.getIncome(17));
+        assertEquals(2 * 5000, statistics.getVisits(fields - 1));
+        assertEquals(0, statistics.getVisits(1));
+
+        int[] ids = new int[fields];
+        for (int i = 0; i < fields; i++) {
+            ids[i] = i + 1;
+        }
+        Simulation simulation = new Simulation(new Board(ids, new int[]{0, fields}), PLAYERS, 30);
+        FieldStatistics large = FieldStatistics.allocate(fields);
+        simulation.setStatistics(large);
+        SimulationResult result = simulation.run(3_000, 2);
+        long visits = 0;
+        long income = 0;
+        for (int f = 0; f < fields; f++) {
+            visits += large.getVisits(f);
+            income += large.getIncome(f);
+        }
+        assertEquals(3_000L * 30 * 2, visits);
+        // nobody gets around such a track
+        assertEquals(0, income);
+        assertEquals(0, result.getMeanMoney(0));
+    }
+
+    @Test
+    void ownerTest() {
+        FieldStatistics statistics = FieldStatistics.allocate(3);
+        assertEquals(GameState.NOBODY, statistics.getOwner(1));
+        assertTrue(statistics.claim(1, 0));
+        assertFalse(statistics.claim(1, 1));
+        assertEquals(0, statistics.getOwner(1));
+        assertThrows(IllegalArgumentException.class, () -> FieldStatistics.allocate(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> statistics.visit(3));
+    }
+
+    @Test
+    void mapTest() throws Exception {
+        Simulation simulation = new Simulation(BOARD, PLAYERS, 10);
+        FieldStatistics statistics = FieldStatistics.map(tmp, 5);
+        simulation.setStatistics(statistics);
+        simulation.run(1_000, 1);
+        statistics.force();
+        // counters stay in the files and further runs add to them
+        FieldStatistics again = FieldStatistics.map(tmp, 5);
+        assertEquals(statistics.getVisits(4), again.getVisits(4));
+        long income = again.getIncome(0);
+        simulation.setStatistics(again);
+        simulation.run(1_000, 1);
+        assertEquals(2 * income, again.getIncome(0));
+        // both map the same pages of the files
+        assertEquals(again.getIncome(0), statistics.getIncome(0));
+        assertEquals(5 * Long.BYTES, Files.size(tmp.resolve("visits.bin")));
+    }
+}
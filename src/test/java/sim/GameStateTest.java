@@ -0,0 +1,56 @@
+package sim;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateTest {
+
+    @Test
+    void forkTest() {
+        Board board = new Board(new int[]{Board.EMPTY, 3, 1, 2}, new int[]{0, 2, 4});
+        GameState state = GameState.initial(board, List.of(
+                new Player("a", 100, Map.of("isGOOD", true, "level", 2, "motto", "hi")),
+                new Player("b", 50, Map.of())));
+        assertEquals(2, state.getPlayerCount());
+        assertEquals(board.getCell(1), state.getPosition(0));
+        assertEquals(GameState.NOBODY, state.getOwner(3));
+        assertEquals(100, state.getAttribute(0, GameState.INCOME));
+        int good = state.getAttributeIndex("isGOOD");
+        int level = state.getAttributeIndex("level");
+        assertEquals(1, state.getAttribute(0, good));
+        assertEquals(0, state.getAttribute(1, good));
+        assertEquals(2, state.getAttribute(0, level));
+        assertEquals(-1, state.getAttributeIndex("motto"));
+
+        state.setOwner(1, 0);
+        GameState branch = state.fork();
+        branch.setOwner(1, 1);
+        branch.setPosition(1, 3);
+        branch.addMoney(1, 500);
+        branch.setAttribute(0, level, 3);
+        state.setOwner(2, 0);
+
+        assertEquals(0, state.getOwner(1));
+        assertEquals(1, branch.getOwner(1));
+        assertEquals(GameState.NOBODY, branch.getOwner(2));
+        assertEquals(board.getCell(1), state.getPosition(1));
+        assertEquals(3, branch.getPosition(1));
+        assertEquals(0, state.getMoney(1));
+        assertArrayEquals(new long[]{0, 500}, branch.getMoney());
+        assertEquals(2, state.getAttribute(0, level));
+        assertEquals(3, branch.getAttribute(0, level));
+    }
+
+    @Test
+    void sparseStartTest() {
+        Board board = new Board(new int[]{Board.EMPTY, 2_000_000_000, 1_000_000_001, 1_000_000_000}, new int[]{0, 4});
+        GameState state = GameState.initial(board, List.of(new Player("a", 1, Map.of())));
+        assertEquals(3, state.getPosition(0));
+    }
+}
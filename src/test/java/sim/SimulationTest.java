@@ -0,0 +1,63 @@
+package sim;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    private static final Board BOARD = new Board(new int[]{1, Board.EMPTY, 2, 3, 4, 5}, new int[]{0, 3, 6});
+
+    private static Player player(String name, int income, boolean good) {
+        return new Player(name, income, Map.of("isGOOD", good));
+    }
+
+    @Test
+    void reproducibleTest() {
+        Simulation simulation = new Simulation(BOARD,
+                List.of(player("a", 100, false), player("b", 100, true), player("c", 120, false)), 20);
+        SimulationResult one = simulation.run(10_000, 42, new ForkJoinPool(1));
+        SimulationResult many = simulation.run(10_000, 42, new ForkJoinPool(4));
+        assertEquals(10_000, one.getPlayouts());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(one.getWins(i), many.getWins(i));
+            assertEquals(one.getMeanMoney(i), many.getMeanMoney(i));
+        }
+        assertEquals(10_000, one.getWins(0) + one.getWins(1) + one.getWins(2));
+        assertNotEquals(one.getWins(0), simulation.run(10_000, 43).getWins(0));
+        assertTrue(one.getPlayoutsPerSecond() > 0);
+    }
+
+    @Test
+    void rulesTest() {
+        // track of 5 fields, 20 rolls of 3.5 on average move 70 fields and end about 2 fields past the start
+        Simulation simulation = new Simulation(BOARD, List.of(player("a", 10, false), player("b", 1000, false)), 20);
+        SimulationResult result = simulation.run(5_000, 7);
+        assertEquals(5_000, result.getWins(1));
+        assertEquals((70 - 2) / 5.0 * 10, result.getMeanMoney(0), 3);
+        // good player rolls less ones, so moves faster
+        Simulation good = new Simulation(BOARD, List.of(player("a", 10, false), player("b", 10, true)), 20);
+        SimulationResult goodResult = good.run(20_000, 7);
+        assertTrue(goodResult.getMeanMoney(1) > goodResult.getMeanMoney(0));
+
+        int[] positions = new int[1];
+        long[] money = new long[1];
+        new Simulation(BOARD, List.of(player("a", 10, false)), 3).playout(new SplittableRandom(1), positions, money);
+        assertTrue(positions[0] < 5);
+    }
+
+    @Test
+    void invalidTest() {
+        Board empty = new Board(new int[]{Board.EMPTY}, new int[]{0, 1});
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(empty, List.of(player("a", 1, false)), 1));
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(BOARD, List.of(), 1));
+        assertEquals(0, new Simulation(BOARD, List.of(player("a", 1, false)), 1).run(0, 1).getPlayouts());
+    }
+}
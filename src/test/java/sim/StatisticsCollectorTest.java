@@ -0,0 +1,138 @@
+package sim;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsCollectorTest {
+
+    private static final Board BOARD = new Board(new int[]{1, Board.EMPTY, 2, 3, 4, 5}, new int[]{0, 3, 6});
+    private static final List<Player> PLAYERS = List.of(new Player("a", 10, Map.of()),
+            new Player("b", 20, Map.of("isGOOD", true)));
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void collectTest() {
+        Simulation simulation = new Simulation(BOARD, PLAYERS, 20);
+        StatisticsCollector one = new StatisticsCollector(2, 5);
+        simulation.setCollector(one);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        StatisticsCollector many = new StatisticsCollector(2, 5);
+        SimulationResult result;
+        try {
+            result = simulation.run(10_000, 5, single);
+            simulation.setCollector(many);
+            simulation.run(10_000, 5, pool);
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+
+        PlayoutStatistics s = one.snapshot();
+        assertEquals(10_000, s.getPlayouts());
+        assertTrue(one.getPublications() > 1);
+        assertEquals(result.getMeanMoney(0), s.getMoney(0).getMean(), 1e-6);
+        assertEquals(result.getMeanMoney(1), s.getMoney(1).getMean(), 1e-6);
+        // the order of merging does not matter
+        assertEquals(s.getMoney(1).getVariance(), many.snapshot().getMoney(1).getVariance(), 1e-6);
+        assertEquals(s.toJson(3), many.snapshot().toJson(3));
+        // player a rolls exactly once a round, b rolls again after 1
+        assertEquals(40, s.getRolls().getMin());
+        assertEquals(40 + 20 / 6.0, s.getRolls().getMean(), 0.2);
+
+        long visits = 0;
+        for (int f = 0; f < 5; f++) {
+            visits += s.getVisits(f);
+        }
+        assertEquals(10_000L * 20 * 2, visits);
+        int[] top = s.getTopFields(3);
+        assertEquals(3, top.length);
+        assertTrue(s.getVisits(top[0]) >= s.getVisits(top[1]) && s.getVisits(top[1]) >= s.getVisits(top[2]));
+
+        assertThrows(IllegalArgumentException.class, () -> simulation.setCollector(new StatisticsCollector(3, 5)));
+        assertThrows(IllegalArgumentException.class, () -> s.merge(new PlayoutStatistics(2, 6)));
+    }
+
+    @Test
+    void negativeIncomeTest() {
+        // a negative income is a valid model, players pay whenever they pass the start
+        Simulation simulation = new Simulation(BOARD, List.of(new Player("a", -10, Map.of()),
+                new Player("b", 20, Map.of())), 20);
+        StatisticsCollector collector = new StatisticsCollector(2, 5);
+        simulation.setCollector(collector);
+        SimulationResult result = simulation.run(5_000, 7);
+        PlayoutStatistics s = collector.snapshot();
+        assertEquals(5_000, s.getPlayouts());
+        assertEquals(result.getMeanMoney(0), s.getMoney(0).getMean(), 1e-6);
+        assertTrue(s.getMoney(0).getMax() < 0);
+        assertTrue(s.getMoneyHistogram(0).getValueAtPercentile(50) < 0);
+        assertTrue(s.getMoneyHistogram(0).getValueAtPercentile(50) <= s.getMoneyHistogram(0).getValueAtPercentile(90));
+        assertTrue(s.toCsv(0).contains("money[0],5000,-"));
+    }
+
+    @Test
+    void exportTest() throws Exception {
+        StatisticsCollector collector = new StatisticsCollector(2, 5);
+        assertEquals("metric,count,mean,stddev,min,max,p50,p90,p99\n"
+                + "money[0],0,,,,,-1,-1,-1\n"
+                + "money[1],0,,,,,-1,-1,-1\n"
+                + "rolls,0,,,,,-1,-1,-1\n", collector.snapshot().toCsv(3));
+        assertTrue(collector.snapshot().toJson(3).startsWith("{\"playouts\":0,\"money\":[{\"count\":0,"
+                + "\"mean\":null,\"stddev\":null,\"min\":null,\"max\":null,"));
+
+        // snapshots are exported while the run is in progress
+        Simulation simulation = new Simulation(BOARD, PLAYERS, 20);
+        simulation.setCollector(collector);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ForkJoinTask<SimulationResult> run = pool.submit(() -> simulation.run(200_000, 1, pool));
+        try {
+            long last = 0;
+            while (!run.isDone()) {
+                PlayoutStatistics snapshot = collector.snapshot();
+                assertTrue(snapshot.getPlayouts() >= last);
+                last = snapshot.getPlayouts();
+                collector.export(tmp.resolve("stats.json"), 2);
+            }
+            assertEquals(200_000, run.get().getPlayouts());
+            collector.export(tmp.resolve("stats.json"), 2);
+            collector.export(tmp.resolve("stats.csv"), 2);
+            List<String> csv = Files.readAllLines(tmp.resolve("stats.csv"));
+            assertEquals(1 + 3 + 2, csv.size());
+            assertTrue(csv.get(3).startsWith("rolls,200000,"));
+            assertTrue(csv.get(4).startsWith("visits["));
+            assertTrue(Files.readString(tmp.resolve("stats.json")).contains("\"topFields\":[{\"field\":"));
+
+            // concurrent exports to one file each write a temporary file of their own
+            ForkJoinTask<?> other = pool.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    collector.export(tmp.resolve("stats.csv"), 2);
+                }
+                return null;
+            });
+            for (int i = 0; i < 50; i++) {
+                collector.export(tmp.resolve("stats.csv"), 2);
+            }
+            other.get();
+            assertEquals(csv, Files.readAllLines(tmp.resolve("stats.csv")));
+            try (Stream<Path> files = Files.list(tmp)) {
+                assertEquals(2, files.count());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteScannerTest {
+
+    @Test
+    void simpleTest() {
+        byte[] b = "board { (1) }\r\nčř \"x\" // y\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(13, ByteScanner.indexOfNewLine(b, 0, b.length));
+        assertEquals(14, ByteScanner.indexOfNewLine(b, 14, b.length));
+        assertEquals(b.length - 1, ByteScanner.indexOfNewLine(b, 15, b.length));
+        assertEquals(-1, ByteScanner.indexOfNewLine(b, 15, b.length - 1));
+        assertEquals(6, ByteScanner.indexOfDelimiter(b, 0, b.length));
+        assertEquals(8, ByteScanner.indexOfDelimiter(b, 7, b.length));
+        // multibyte characters are skipped
+        assertEquals(20, ByteScanner.indexOfDelimiter(b, 15, b.length));
+        assertEquals(-1, ByteScanner.indexOfDelimiter(b, 0, 0));
+        assertTrue(ByteScanner.isDelimiter((byte) '/'));
+        assertFalse(ByteScanner.isDelimiter((byte) 'x'));
+
+        ByteBuffer big = ByteBuffer.wrap(b);
+        ByteBuffer little = ByteScanner.littleEndian(big);
+        assertEquals(ByteOrder.LITTLE_ENDIAN, little.order());
+        assertSame(little, ByteScanner.littleEndian(little));
+        assertEquals(ByteScanner.indexOfNewLine(big, 15, b.length), ByteScanner.indexOfNewLine(little, 15, b.length));
+    }
+
+    @Test
+    void randomTest() {
+        // the same results as a plain loop for every range and byte order of the buffer
+        Random random = new Random(5);
+        byte[] alphabet = "ab {}()\"/\r\n".getBytes(StandardCharsets.US_ASCII);
+        for (int round = 0; round < 200; round++) {
+            byte[] b = new byte[random.nextInt(100)];
+            for (int i = 0; i < b.length; i++) {
+                int r = random.nextInt(40);
+                // mostly bytes that are not searched, including negative ones
+                b[i] = r < alphabet.length ? alphabet[r] : (byte) (r < 30 ? 'x' : 0x80 + r);
+            }
+            ByteBuffer big = ByteBuffer.wrap(b).order(ByteOrder.BIG_ENDIAN);
+            for (int k = 0; k < 10; k++) {
+                int from = b.length == 0 ? 0 : random.nextInt(b.length);
+                int to = from + random.nextInt(b.length - from + 1);
+                assertEquals(naive(b, from, to, false), ByteScanner.indexOfNewLine(b, from, to));
+                assertEquals(naive(b, from, to, false), ByteScanner.indexOfNewLine(big, from, to));
+                assertEquals(naive(b, from, to, true), ByteScanner.indexOfDelimiter(b, from, to));
+                assertEquals(naive(b, from, to, true), ByteScanner.indexOfDelimiter(big, from, to));
+            }
+        }
+    }
+
+    private static int naive(byte[] b, int from, int to, boolean delimiters) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == '\n' || b[i] == '\r' || (delimiters && ByteScanner.isDelimiter(b[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,80 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void bucketTest() {
+        for (long v : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(v);
+            long low = Histogram.lowestValue(bucket);
+            assertTrue(low <= v && v - low <= low / Histogram.SUB_BUCKETS, "value " + v);
+            if (bucket > 0) {
+                assertTrue(Histogram.lowestValue(bucket - 1) < low);
+            }
+        }
+        assertTrue(Histogram.bucketOf(Long.MAX_VALUE) < 2000);
+    }
+
+    @Test
+    void negativeTest() {
+        Random random = new Random(3);
+        long[] values = new long[10_000];
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            long magnitude = (long) (Math.exp(random.nextDouble() * 20));
+            values[i] = i % 3 == 0 ? magnitude : -magnitude;
+            (i % 2 == 0 ? a : b).add(values[i]);
+        }
+        a.merge(b);
+        Arrays.sort(values);
+        assertEquals(values[0], a.getMin());
+        assertEquals(values[values.length - 1], a.getMax());
+        for (double p : new double[]{0, 1, 10, 50, 66, 67, 90, 99, 100}) {
+            long exact = values[Math.max(0, (int) Math.ceil(p / 100 * values.length) - 1)];
+            long estimate = a.getValueAtPercentile(p);
+            assertTrue(estimate <= exact && exact - estimate <= Math.abs(exact) / Histogram.SUB_BUCKETS + 1,
+                    p + ": " + estimate + " vs " + exact);
+        }
+
+        Histogram extremes = new Histogram();
+        extremes.add(Long.MIN_VALUE);
+        extremes.add(-1);
+        extremes.add(Long.MAX_VALUE);
+        assertEquals(Long.MIN_VALUE, extremes.getValueAtPercentile(0));
+        assertEquals(-1, extremes.getValueAtPercentile(60));
+        assertEquals(Long.MIN_VALUE, extremes.getMin());
+        assertEquals(Long.MAX_VALUE, extremes.getMax());
+        assertEquals(-1, new Histogram().getMin());
+    }
+
+    @Test
+    void percentileTest() {
+        Random random = new Random(2);
+        long[] values = new long[10_000];
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextDouble() * 20));
+            (i % 2 == 0 ? a : b).add(values[i]);
+        }
+        a.merge(b.copy());
+        Arrays.sort(values);
+        assertEquals(values.length, a.getCount());
+        assertEquals(values[values.length - 1], a.getMax());
+        for (double p : new double[]{1, 50, 90, 99, 100}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long estimate = a.getValueAtPercentile(p);
+            assertTrue(estimate <= exact && exact - estimate <= exact / Histogram.SUB_BUCKETS,
+                    p + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(-1, new Histogram().getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,52 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineIndexTest {
+
+    @Test
+    void separatorsTest() {
+        String text = "a\rbb\r\nccc\n\nd";
+        for (LineIndex index : new LineIndex[]{LineIndex.of(text.getBytes(StandardCharsets.UTF_8)),
+                LineIndex.of(text.toCharArray())}) {
+            assertEquals(5, index.getLineCount());
+            assertEquals(0, index.getLineStart(0));
+            assertEquals(2, index.getLineStart(1));
+            assertEquals(6, index.getLineStart(2));
+            assertEquals(10, index.getLineStart(3));
+            assertEquals(11, index.getLineStart(4));
+            assertEquals(6, index.getLineEnd(1));
+            assertEquals(12, index.getLineEnd(4));
+            assertEquals(1, index.lineOf(4));
+            assertEquals(2, index.columnOf(4));
+            assertEquals(3, index.lineOf(10));
+            assertEquals(4, index.lineOf(12));
+            assertThrows(IndexOutOfBoundsException.class, () -> index.lineOf(13));
+            assertThrows(IndexOutOfBoundsException.class, () -> index.getLineStart(5));
+        }
+    }
+
+    @Test
+    void bufferTest() {
+        // offsets are indexes of the buffer, lines start at its position
+        StringBuilder sb = new StringBuilder("xx");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        ByteBuffer src = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)).position(2);
+        LineIndex index = LineIndex.of(src);
+        assertEquals(1001, index.getLineCount());
+        assertEquals(2, index.getLineStart(0));
+        assertEquals(2 + 7, index.getLineStart(1));
+        assertEquals(src.limit(), index.getLineStart(1000));
+        assertEquals(500, index.lineOf(index.getLineStart(500) + 3));
+        assertEquals(3, index.columnOf(index.getLineStart(500) + 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.lineOf(1));
+        assertEquals(1, LineIndex.of(new byte[0]).getLineCount());
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import model.Board;
+import model.Player;
+import org.junit.jupiter.api.Test;
+import parser.ByteLexer;
+import parser.Lexer;
+import parser.ModelParser;
+
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelGeneratorTest {
+
+    @Test
+    void parseTest() throws Exception {
+        for (String separator : new String[]{"\n", "\r\n", "\r"}) {
+            ModelGenerator generator = new ModelGenerator(11);
+            generator.setBoardSize(20, 7);
+            generator.setEmptyRatio(0.5);
+            generator.setPlayers(4, 5);
+            generator.setCommentDensity(0.5);
+            generator.setLineSeparator(separator);
+            generator.setStringLength(30);
+            byte[] model = generator.generate();
+            assertArrayEquals(model, generator.generate());
+
+            ModelParser parser = new ModelParser(new ByteLexer(model));
+            Board board = parser.parseBoard();
+            assertEquals(20, board.getRowCount());
+            assertEquals(140, board.getCellCount());
+            assertEquals(generator.getFieldCount(), board.getFieldCount());
+            assertTrue(board.getFieldCount() > 30 && board.getFieldCount() < 110);
+            List<Player> players = new ArrayList<>();
+            while (!parser.atEnd()) {
+                players.add(parser.parsePlayer());
+            }
+            assertEquals(4, players.size());
+            assertEquals(5, players.get(0).getProperties().size());
+            assertEquals(32, players.get(3).getName().length());
+            assertTrue(players.get(3).getName().startsWith("4 "));
+
+            // the reader based lexer agrees
+            String text = new String(model, StandardCharsets.UTF_8);
+            assertEquals(new ByteLexer(model).readAll().size(),
+                    new Lexer(new PushbackReader(new StringReader(text))).readAll().size());
+        }
+    }
+
+    @Test
+    void settingsTest() {
+        ModelGenerator generator = new ModelGenerator(1);
+        generator.setEmptyRatio(0);
+        generator.setCommentDensity(0);
+        generator.setPlayers(0, 0);
+        generator.setBoardSize(1, 3);
+        assertEquals("board {\n(1) (2) (3)\n}\n", new String(generator.generate(), StandardCharsets.UTF_8));
+        generator.setEmptyRatio(1);
+        assertEquals(1, generator.getFieldCount());
+        assertNotEquals(new String(new ModelGenerator(2).generate(), StandardCharsets.UTF_8),
+                new String(new ModelGenerator(1).generate(), StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> generator.setLineSeparator("\n\r"));
+        assertThrows(IllegalArgumentException.class, () -> generator.setBoardSize(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setEmptyRatio(Double.NaN));
+    }
+}
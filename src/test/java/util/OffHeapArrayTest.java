@@ -0,0 +1,83 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapArrayTest {
+
+    @Test
+    void longTest() throws Exception {
+        OffHeapLongArray a = OffHeapLongArray.allocate(1000);
+        assertEquals(1000, a.length());
+        assertEquals(0, a.get(999));
+        a.set(3, 1L << 40);
+        assertEquals((1L << 40) + 2, a.add(3, 2));
+        assertTrue(a.compareAndSet(3, (1L << 40) + 2, 7));
+        assertFalse(a.compareAndSet(3, 8, 9));
+        assertEquals(7, a.getVolatile(3));
+        ByteBuffer view = a.getSegment(0);
+        assertEquals(7, view.getLong(3 * Long.BYTES));
+        assertTrue(view.isReadOnly());
+        assertThrows(IndexOutOfBoundsException.class, () -> a.get(1000));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.set(-1, 0));
+        assertEquals(0, OffHeapLongArray.allocate(0).getSegmentCount());
+    }
+
+    @Test
+    void concurrentTest() throws Exception {
+        // atomic adds from many threads are never lost
+        OffHeapIntArray a = OffHeapIntArray.allocate(16);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        a.add(i & 15, 1);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < 16; i++) {
+            assertEquals(4 * 100_000 / 16, a.get(i));
+        }
+    }
+
+    @Test
+    void segmentTest() throws Exception {
+        // a mapped sparse file longer than one segment, only touched pages use memory
+        Path file = Files.createTempFile("offheap", ".bin");
+        try {
+            long length = (OffHeapArray.SEGMENT_BYTES / Integer.BYTES) + 4L;
+            OffHeapIntArray a = OffHeapIntArray.map(file, length);
+            assertEquals(2, a.getSegmentCount());
+            assertEquals(length - 4, a.getSegmentStart(1));
+            a.set(length - 5, 1);
+            a.set(length - 4, 2);
+            a.add(length - 1, 3);
+            assertEquals(1, a.get(length - 5));
+            assertEquals(2, a.getSegment(1).getInt(0));
+            assertEquals(16, a.getSegment(1).capacity());
+            a.force();
+            assertEquals(length * Integer.BYTES, Files.size(file));
+            assertEquals(3, OffHeapIntArray.map(file, length).get(length - 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
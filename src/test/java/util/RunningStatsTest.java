@@ -0,0 +1,49 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunningStatsTest {
+
+    @Test
+    void statsTest() {
+        RunningStats stats = new RunningStats();
+        assertTrue(Double.isNaN(stats.getMin()));
+        assertEquals(0, stats.getVariance());
+        for (double v : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            stats.add(v);
+        }
+        assertEquals(8, stats.getCount());
+        assertEquals(5, stats.getMean(), 1e-12);
+        assertEquals(32 / 7.0, stats.getVariance(), 1e-12);
+        assertEquals(2, stats.getMin());
+        assertEquals(9, stats.getMax());
+    }
+
+    @Test
+    void mergeTest() {
+        // merged parts give the same result as one stream
+        Random random = new Random(1);
+        RunningStats all = new RunningStats();
+        RunningStats[] parts = {new RunningStats(), new RunningStats(), new RunningStats()};
+        for (int i = 0; i < 10_000; i++) {
+            double v = 1e6 + random.nextGaussian() * 3;
+            all.add(v);
+            parts[random.nextInt(3)].add(v);
+        }
+        RunningStats merged = new RunningStats();
+        for (RunningStats part : parts) {
+            merged.merge(part.copy());
+        }
+        merged.merge(new RunningStats());
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getMean(), merged.getMean(), 1e-6);
+        assertEquals(all.getVariance(), merged.getVariance(), 1e-6);
+        assertEquals(9, all.getVariance(), 0.5);
+        assertEquals(all.getMin(), merged.getMin());
+        assertEquals(all.getMax(), merged.getMax());
+    }
+}
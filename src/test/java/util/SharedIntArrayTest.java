@@ -0,0 +1,59 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedIntArrayTest {
+
+    @Test
+    void forkTest() {
+        SharedIntArray a = new SharedIntArray(5000, 7);
+        assertEquals(5000, a.size());
+        assertEquals(7, a.get(4999));
+        a.set(10, 1);
+        SharedIntArray b = a.fork();
+        b.set(10, 2);
+        a.set(4000, 3);
+        assertEquals(1, a.get(10));
+        assertEquals(2, b.get(10));
+        assertEquals(3, a.get(4000));
+        assertEquals(7, b.get(4000));
+        SharedIntArray c = b.fork();
+        assertEquals(3, c.add(10, 1));
+        assertEquals(2, b.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.get(5000));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.set(-1, 0));
+        assertArrayEquals(new int[]{1, 0, 3}, new SharedIntArray(new int[]{1, 0, 3}).toArray());
+        assertEquals(0, new SharedIntArray(0, 1).size());
+    }
+
+    @Test
+    void randomTest() {
+        // every fork must behave as its own copy of a plain array
+        Random random = new Random(3);
+        int n = 40000;
+        SharedIntArray[] arrays = {new SharedIntArray(n, 0)};
+        int[][] expected = {new int[n]};
+        for (int step = 0; step < 20000; step++) {
+            int k = random.nextInt(arrays.length);
+            if (random.nextInt(50) == 0 && arrays.length < 16) {
+                arrays = Arrays.copyOf(arrays, arrays.length + 1);
+                expected = Arrays.copyOf(expected, expected.length + 1);
+                arrays[arrays.length - 1] = arrays[k].fork();
+                expected[expected.length - 1] = expected[k].clone();
+            } else {
+                int i = random.nextInt(n);
+                int v = random.nextInt();
+                arrays[k].set(i, v);
+                expected[k][i] = v;
+            }
+        }
+        for (int k = 0; k < arrays.length; k++) {
+            assertArrayEquals(expected[k], arrays[k].toArray());
+        }
+    }
+}